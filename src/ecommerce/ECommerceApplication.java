@@ -1,10 +1,26 @@
 package ecommerce;
 
+import ecommerce.analytics.SalesAnalytics;
+import ecommerce.api.HttpApiServer;
+import ecommerce.api.RpcServer;
+import ecommerce.event.OrderEventBus;
 import ecommerce.model.*;
+import ecommerce.persistence.DurableStore;
+import ecommerce.persistence.OrderCodec;
+import ecommerce.persistence.ProductCodec;
+import ecommerce.persistence.UserCodec;
 import ecommerce.repository.impl.*;
 import ecommerce.service.*;
 import ecommerce.util.FormatUtil;
+import ecommerce.util.PasswordHasher;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 public class ECommerceApplication {
@@ -12,13 +28,55 @@ public class ECommerceApplication {
     private final UserService userService;
     private final OrderService orderService;
     private final Scanner scanner;
+    private final DurableStore store;
+    private final PasswordHasher passwordHasher;
+    private final SessionManager sessions;
+    private final OrderEventBus events;
+    private final FulfillmentScheduler fulfillment;
 
     public ECommerceApplication() {
-        this.productService = new ProductService(new ProductRepositoryImpl());
-        this.userService = new UserService(new UserRepositoryImpl());
-        this.orderService = new OrderService(new OrderRepositoryImpl(), productService);
+        ProductRepositoryImpl productRepository = new ProductRepositoryImpl();
+        UserRepositoryImpl userRepository = new UserRepositoryImpl();
+        OrderRepositoryImpl orderRepository = new OrderRepositoryImpl();
+        this.store = openStore(productRepository, userRepository, orderRepository);
+        this.productService = new ProductService(productRepository);
+        this.passwordHasher = new PasswordHasher();
+        this.sessions = new SessionManager(Duration.ofMinutes(Long.getLong("ecommerce.session.ttl.minutes", 30L)));
+        this.userService = new UserService(userRepository, passwordHasher, sessions);
+        SalesAnalytics analytics = new SalesAnalytics();
+        this.events = new OrderEventBus();
+        this.events.subscribe("analytics", analytics);
+        this.orderService = new OrderService(orderRepository, productService, RepositoryUnitOfWork::new,
+                analytics, events);
+        this.orderService.loadAnalytics();
+        this.events.start();
+        this.fulfillment = new FulfillmentScheduler(orderService);
+        Long fulfillmentMinutes = Long.getLong("ecommerce.fulfillment.interval.minutes");
+        if (fulfillmentMinutes != null) {
+            Duration interval = Duration.ofMinutes(fulfillmentMinutes);
+            fulfillment.scheduleAdvance(Order.OrderStatus.CONFIRMED, interval, interval);
+        }
         this.scanner = new Scanner(System.in);
-        initializeSampleData();
+        if (productService.getTotalProducts() == 0 && userService.getTotalUsers() == 0) {
+            initializeSampleData();
+        }
+    }
+
+    private static DurableStore openStore(ProductRepositoryImpl productRepository,
+                                          UserRepositoryImpl userRepository,
+                                          OrderRepositoryImpl orderRepository) {
+        Path dataDirectory = Path.of(System.getProperty("ecommerce.data.dir", "data"));
+        try {
+            DurableStore store = new DurableStore(dataDirectory);
+            store.register(productRepository, new ProductCodec());
+            store.register(userRepository, new UserCodec());
+            store.register(orderRepository, new OrderCodec(productRepository, userRepository));
+            store.recover();
+            store.scheduleSnapshots(Duration.ofMinutes(Long.getLong("ecommerce.snapshot.interval.minutes", 10L)));
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open data directory: " + dataDirectory, e);
+        }
     }
 
     private void initializeSampleData() {
@@ -28,27 +86,22 @@ public class ECommerceApplication {
                 "98765432109", "Rua B, 456", "11912345678");
         Admin admin = new Admin(null, "Admin", "admin@ecommerce.com", "admin123", "IT", "ADM001");
 
-        userService.createUser(customer1);
-        userService.createUser(customer2);
-        userService.createUser(admin);
+        userService.createUsers(List.of(customer1, customer2, admin));
 
         PhysicalProduct notebook = new PhysicalProduct(null, "Notebook Dell", 
-                "Notebook Dell Inspiron 15", BigDecimal.valueOf(3500.00), "Electronics",
+                "Notebook Dell Inspiron 15", Money.parse("3500.00"), "Electronics",
                 2.5, 20.0, 35.0, 25.0, 10);
         PhysicalProduct mouse = new PhysicalProduct(null, "Mouse Logitech", 
-                "Mouse sem fio Logitech MX Master", BigDecimal.valueOf(250.00), "Electronics",
+                "Mouse sem fio Logitech MX Master", Money.parse("250.00"), "Electronics",
                 0.3, 5.0, 12.0, 7.0, 50);
         DigitalProduct ebook = new DigitalProduct(null, "Java Programming", 
-                "Complete Java Programming Guide", BigDecimal.valueOf(49.90), "Books",
+                "Complete Java Programming Guide", Money.parse("49.90"), "Books",
                 "https://download.com/java-book", 15.5, "PDF", 5, 365);
         DigitalProduct course = new DigitalProduct(null, "Web Development Course",
-                "Complete Web Development Bootcamp", BigDecimal.valueOf(199.90), "Education",
+                "Complete Web Development Bootcamp", Money.parse("199.90"), "Education",
                 "https://download.com/web-course", 2500.0, "MP4", 3, 180);
 
-        productService.createProduct(notebook);
-        productService.createProduct(mouse);
-        productService.createProduct(ebook);
-        productService.createProduct(course);
+        productService.createProducts(List.of(notebook, mouse, ebook, course));
 
         System.out.println("\n✓ Sample data initialized successfully!\n");
     }
@@ -74,6 +127,7 @@ public class ECommerceApplication {
                         break;
                     case 0:
                         System.out.println("\nThank you for using E-Commerce System! Goodbye!");
+                        shutdown();
                         return;
                     default:
                         System.out.println("Invalid option!");
@@ -84,6 +138,44 @@ public class ECommerceApplication {
         }
     }
 
+    public void serve(Integer httpPort, Integer rpcPort) throws IOException {
+        HttpApiServer httpServer = httpPort == null ? null
+                : new HttpApiServer(httpPort, productService, userService, orderService);
+        RpcServer rpcServer = rpcPort == null ? null
+                : new RpcServer(InetAddress.getByName(System.getProperty("ecommerce.rpc.bind", "127.0.0.1")),
+                        rpcPort, productService, userService, orderService);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (httpServer != null) {
+                httpServer.close();
+            }
+            if (rpcServer != null) {
+                rpcServer.close();
+            }
+            shutdown();
+        }, "server-shutdown"));
+        if (httpServer != null) {
+            httpServer.start();
+            System.out.println("HTTP API listening on port " + httpServer.getPort());
+        }
+        if (rpcServer != null) {
+            rpcServer.start();
+            System.out.println("RPC server listening on port " + rpcServer.getPort());
+        }
+    }
+
+    private void shutdown() {
+        fulfillment.close();
+        events.close();
+        sessions.close();
+        passwordHasher.close();
+        try {
+            store.snapshot();
+            store.close();
+        } catch (IOException e) {
+            System.out.println("\n❌ Error closing data store: " + e.getMessage() + "\n");
+        }
+    }
+
     private void displayMainMenu() {
         FormatUtil.printHeader("E-COMMERCE MANAGEMENT SYSTEM");
         System.out.println("1. Product Management");
@@ -151,7 +243,7 @@ public class ECommerceApplication {
 
         String name = readString("Name: ");
         String description = readString("Description: ");
-        BigDecimal price = readBigDecimal("Price: ");
+        Money price = readMoney("Price: ");
         String category = readString("Category: ");
 
         Product product;
@@ -195,7 +287,7 @@ public class ECommerceApplication {
 
         System.out.println("Current price: " + product.getPrice());
         String priceStr = readString("New price (press Enter to keep): ");
-        if (!priceStr.isEmpty()) product.setPrice(new BigDecimal(priceStr));
+        if (!priceStr.isEmpty()) product.setPrice(Money.parse(priceStr));
 
         productService.updateProduct(product);
         System.out.println("\n✓ Product updated successfully!\n");
@@ -460,7 +552,7 @@ public class ECommerceApplication {
             int percentage = readInt("Discount percentage: ");
             orderService.applyDiscount(id, percentage);
         } else {
-            BigDecimal amount = readBigDecimal("Discount amount: ");
+            Money amount = readMoney("Discount amount: ");
             orderService.applyDiscount(id, amount);
         }
         System.out.println();
@@ -477,7 +569,15 @@ public class ECommerceApplication {
         System.out.println("Total Products: " + productService.getTotalProducts());
         System.out.println("Total Users: " + userService.getTotalUsers());
         System.out.println("Total Orders: " + orderService.getTotalOrders());
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            System.out.println("  " + status + ": " + orderService.getOrderCount(status));
+        }
         System.out.println("Total Revenue: " + FormatUtil.formatCurrency(orderService.calculateTotalRevenue()));
+        for (SalesAnalytics.Window window : SalesAnalytics.Window.values()) {
+            System.out.println("  " + window + ": " + orderService.getOrdersPlaced(window) + " placed, "
+                    + orderService.getOrdersDelivered(window) + " delivered, "
+                    + FormatUtil.formatCurrency(orderService.getRevenue(window)));
+        }
         FormatUtil.printSeparator();
         System.out.println();
     }
@@ -531,8 +631,20 @@ public class ECommerceApplication {
         return value;
     }
 
-    public static void main(String[] args) {
+    private Money readMoney(String prompt) {
+        return Money.of(readBigDecimal(prompt));
+    }
+
+    public static void main(String[] args) throws IOException {
         ECommerceApplication app = new ECommerceApplication();
-        app.start();
+        List<String> flags = Arrays.asList(args);
+        boolean http = flags.contains("--server");
+        boolean rpc = flags.contains("--rpc");
+        if (http || rpc) {
+            app.serve(http ? Integer.getInteger("ecommerce.http.port", 8080) : null,
+                    rpc ? Integer.getInteger("ecommerce.rpc.port", 9090) : null);
+        } else {
+            app.start();
+        }
     }
 }
@@ -0,0 +1,63 @@
+package ecommerce.analytics;
+
+final class BucketRing {
+    private final long bucketMillis;
+    private final long[] counts;
+    private final long[] amounts;
+    private long head;
+    private long windowCount;
+    private long windowAmount;
+
+    BucketRing(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.counts = new long[buckets];
+        this.amounts = new long[buckets];
+        this.head = Long.MIN_VALUE;
+    }
+
+    synchronized void add(long epochMillis, long nowMillis, long amount) {
+        advance(Math.floorDiv(nowMillis, bucketMillis));
+        long bucket = Math.floorDiv(epochMillis, bucketMillis);
+        if (bucket > head || bucket <= head - counts.length) {
+            return;
+        }
+        int slot = slot(bucket);
+        counts[slot]++;
+        amounts[slot] += amount;
+        windowCount++;
+        windowAmount += amount;
+    }
+
+    synchronized long count(long nowMillis) {
+        advance(Math.floorDiv(nowMillis, bucketMillis));
+        return windowCount;
+    }
+
+    synchronized long amount(long nowMillis) {
+        advance(Math.floorDiv(nowMillis, bucketMillis));
+        return windowAmount;
+    }
+
+    private void advance(long bucket) {
+        if (head == Long.MIN_VALUE) {
+            head = bucket;
+            return;
+        }
+        if (bucket <= head) {
+            return;
+        }
+        long expired = Math.min(bucket - head, counts.length);
+        for (long i = 1; i <= expired; i++) {
+            int slot = slot(head + i);
+            windowCount -= counts[slot];
+            windowAmount -= amounts[slot];
+            counts[slot] = 0;
+            amounts[slot] = 0;
+        }
+        head = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) counts.length);
+    }
+}
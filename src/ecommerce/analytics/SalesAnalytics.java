@@ -0,0 +1,104 @@
+package ecommerce.analytics;
+
+import ecommerce.event.OrderEvent;
+import ecommerce.event.OrderEventListener;
+import ecommerce.model.Money;
+import ecommerce.model.Order;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class SalesAnalytics implements OrderEventListener {
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    public enum Window {
+        LAST_HOUR, LAST_DAY, LAST_30_DAYS
+    }
+
+    private final Clock clock;
+    private final Map<Window, BucketRing> placed;
+    private final Map<Window, BucketRing> delivered;
+
+    public SalesAnalytics() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public SalesAnalytics(Clock clock) {
+        this.clock = clock;
+        this.placed = newRings();
+        this.delivered = newRings();
+    }
+
+    public void recordOrderPlaced(LocalDateTime orderDate, Money total) {
+        record(placed, orderDate, total);
+    }
+
+    public void recordOrderDelivered(LocalDateTime deliveryDate, Money total) {
+        record(delivered, deliveryDate, total);
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, boolean endOfBatch) {
+        switch (event.getType()) {
+            case PLACED:
+                record(placed, event.getOccurredAt(), event.getTotalCents());
+                break;
+            case DELIVERED:
+                record(delivered, event.getOccurredAt(), event.getTotalCents());
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void recordOrder(Order order) {
+        recordOrderPlaced(order.getOrderDate(), order.getTotalAmount());
+        if (order.getStatus() == Order.OrderStatus.DELIVERED) {
+            recordOrderDelivered(order.getDeliveryDate(), order.getTotalAmount());
+        }
+    }
+
+    public long getOrdersPlaced(Window window) {
+        return placed.get(window).count(clock.millis());
+    }
+
+    public Money getPlacedAmount(Window window) {
+        return Money.ofCents(placed.get(window).amount(clock.millis()));
+    }
+
+    public long getOrdersDelivered(Window window) {
+        return delivered.get(window).count(clock.millis());
+    }
+
+    public Money getRevenue(Window window) {
+        return Money.ofCents(delivered.get(window).amount(clock.millis()));
+    }
+
+    private void record(Map<Window, BucketRing> rings, LocalDateTime date, Money total) {
+        if (total != null) {
+            record(rings, date, total.getCents());
+        }
+    }
+
+    private void record(Map<Window, BucketRing> rings, LocalDateTime date, long cents) {
+        if (date == null) {
+            return;
+        }
+        long at = date.atZone(clock.getZone()).toInstant().toEpochMilli();
+        long now = clock.millis();
+        for (BucketRing ring : rings.values()) {
+            ring.add(at, now, cents);
+        }
+    }
+
+    private static Map<Window, BucketRing> newRings() {
+        Map<Window, BucketRing> rings = new EnumMap<>(Window.class);
+        rings.put(Window.LAST_HOUR, new BucketRing(MINUTE, 60));
+        rings.put(Window.LAST_DAY, new BucketRing(HOUR, 24));
+        rings.put(Window.LAST_30_DAYS, new BucketRing(HOUR, 30 * 24));
+        return rings;
+    }
+}
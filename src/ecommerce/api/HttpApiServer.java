@@ -0,0 +1,466 @@
+package ecommerce.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ecommerce.model.*;
+import ecommerce.repository.PersistenceException;
+import ecommerce.service.OrderService;
+import ecommerce.service.ProductService;
+import ecommerce.service.UserService;
+import ecommerce.util.JsonUtil;
+import ecommerce.util.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class HttpApiServer implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(HttpApiServer.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final ProductService productService;
+    private final UserService userService;
+    private final OrderService orderService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HttpApiServer(int port, ProductService productService, UserService userService,
+                         OrderService orderService) throws IOException {
+        this.productService = productService;
+        this.userService = userService;
+        this.orderService = orderService;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/products", exchange -> handle(exchange, this::routeProducts));
+        server.createContext("/users", exchange -> handle(exchange, this::routeUsers));
+        server.createContext("/login", exchange -> handle(exchange, this::routeLogin));
+        server.createContext("/logout", exchange -> handle(exchange, this::routeLogout));
+        server.createContext("/session", exchange -> handle(exchange, this::routeSession));
+        server.createContext("/orders", exchange -> handle(exchange, this::routeOrders));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private Response routeProducts(Request request) {
+        String[] path = request.path;
+        if (path.length == 1 && request.is("GET")) {
+            Map<String, String> query = request.query();
+            Long afterId = optionalLong(query.get("afterId"), "afterId");
+            int limit = pageLimit(query.get("limit"));
+            String category = query.get("category");
+            List<Product> page = category == null
+                    ? productService.getProductsPage(afterId, limit)
+                    : productService.getProductsByCategory(category, afterId, limit);
+            List<Map<String, Object>> views = new ArrayList<>(page.size());
+            for (Product product : page) {
+                views.add(productView(product));
+            }
+            return Response.ok(views);
+        }
+        if (path.length == 2 && request.is("GET")) {
+            return Response.ok(productView(productService.getProduct(pathId(path[1]))));
+        }
+        return Response.notFound();
+    }
+
+    private Response routeUsers(Request request) {
+        String[] path = request.path;
+        if (path.length == 1 && request.is("POST")) {
+            Map<String, Object> body = request.body();
+            Customer customer = new Customer(null, requiredString(body, "name"), requiredString(body, "email"),
+                    requiredString(body, "password"), optionalString(body, "cpf"),
+                    optionalString(body, "address"), optionalString(body, "phone"));
+            return new Response(201, userView(userService.createUser(customer)));
+        }
+        if (path.length == 2 && request.is("GET")) {
+            Optional<User> session = userService.getSessionUser(request.bearerToken());
+            if (session.isEmpty()) {
+                return Response.unauthorized();
+            }
+            Long userId = pathId(path[1]);
+            if (!canAccess(session.get(), userId)) {
+                return Response.forbidden();
+            }
+            return Response.ok(userView(userService.getUser(userId)));
+        }
+        return Response.notFound();
+    }
+
+    private Response routeLogin(Request request) {
+        if (request.path.length != 1 || !request.is("POST")) {
+            return Response.notFound();
+        }
+        Map<String, Object> body = request.body();
+        String email = requiredString(body, "email");
+        Optional<String> token = userService.login(email, requiredString(body, "password"));
+        if (token.isEmpty()) {
+            return Response.error(401, "Invalid email or password");
+        }
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("token", token.get());
+        view.put("user", userView(userService.getSessionUser(token.get()).orElseThrow()));
+        return Response.ok(view);
+    }
+
+    private Response routeLogout(Request request) {
+        if (request.path.length != 1 || !request.is("POST")) {
+            return Response.notFound();
+        }
+        String token = request.bearerToken();
+        if (token == null) {
+            return Response.error(401, "Missing bearer token");
+        }
+        userService.logout(token);
+        return Response.ok(Map.of("loggedOut", true));
+    }
+
+    private Response routeSession(Request request) {
+        if (request.path.length != 1 || !request.is("GET")) {
+            return Response.notFound();
+        }
+        Optional<User> user = userService.getSessionUser(request.bearerToken());
+        if (user.isEmpty()) {
+            return Response.unauthorized();
+        }
+        return Response.ok(userView(user.get()));
+    }
+
+    private Response routeOrders(Request request) {
+        String[] path = request.path;
+        Optional<User> session = userService.getSessionUser(request.bearerToken());
+        if (session.isEmpty()) {
+            return Response.unauthorized();
+        }
+        User user = session.get();
+        if (path.length == 1 && request.is("POST")) {
+            if (!(user instanceof Customer)) {
+                return Response.error(403, "Only customers can place orders");
+            }
+            return new Response(201, orderView(createOrder((Customer) user, request.body())));
+        }
+        if (path.length < 2) {
+            return Response.notFound();
+        }
+        Long orderId = pathId(path[1]);
+        Order order = orderService.getOrder(orderId);
+        if (!canAccess(user, order.getCustomer().getId())) {
+            return Response.forbidden();
+        }
+        if (path.length == 2 && request.is("GET")) {
+            return Response.ok(orderView(order));
+        }
+        if (path.length != 3 || !request.is("POST")) {
+            return Response.notFound();
+        }
+        boolean staffOnly = path[2].equals("process") || path[2].equals("ship") || path[2].equals("deliver");
+        if (staffOnly && !(user instanceof Admin)) {
+            return Response.forbidden();
+        }
+        switch (path[2]) {
+            case "items":
+                Map<String, Object> body = request.body();
+                Product product = productService.getProduct(requiredLong(body, "productId"));
+                orderService.addItemToOrder(orderId, product, requiredInt(body, "quantity"));
+                break;
+            case "confirm":
+                orderService.confirmOrder(orderId);
+                break;
+            case "process":
+                orderService.processOrder(orderId);
+                break;
+            case "ship":
+                orderService.shipOrder(orderId);
+                break;
+            case "deliver":
+                orderService.deliverOrder(orderId);
+                break;
+            case "cancel":
+                orderService.cancelOrder(orderId);
+                break;
+            default:
+                return Response.notFound();
+        }
+        return Response.ok(orderView(orderService.getOrder(orderId)));
+    }
+
+    private Order createOrder(Customer customer, Map<String, Object> body) {
+        String paymentMethod = requiredString(body, "paymentMethod");
+        Object rawItems = body.get("items");
+        if (rawItems == null) {
+            return orderService.createOrder(customer, paymentMethod);
+        }
+        if (!(rawItems instanceof List)) {
+            throw new IllegalArgumentException("Field 'items' must be an array");
+        }
+        List<OrderItem> items = new ArrayList<>();
+        for (Object rawItem : (List<?>) rawItems) {
+            if (!(rawItem instanceof Map)) {
+                throw new IllegalArgumentException("Order items must be objects");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> item = (Map<String, Object>) rawItem;
+            Product product = productService.getProduct(requiredLong(item, "productId"));
+            items.add(new OrderItem(null, product, requiredInt(item, "quantity")));
+        }
+        return orderService.createOrder(customer, paymentMethod, items);
+    }
+
+    private static boolean canAccess(User user, Long ownerId) {
+        return user instanceof Admin || user.getId().equals(ownerId);
+    }
+
+    private static Map<String, Object> productView(Product product) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", product.getId());
+        view.put("type", product.getProductType());
+        view.put("name", product.getName());
+        view.put("description", product.getDescription());
+        view.put("price", money(product.getPrice()));
+        view.put("category", product.getCategory());
+        view.put("available", product.isAvailable());
+        if (product instanceof PhysicalProduct) {
+            view.put("stockQuantity", ((PhysicalProduct) product).getStockQuantity());
+        } else if (product instanceof DigitalProduct) {
+            DigitalProduct digital = (DigitalProduct) product;
+            view.put("fileFormat", digital.getFileFormat());
+            view.put("fileSizeMB", digital.getFileSizeMB());
+        }
+        view.put("shipping", money(product.calculateShipping()));
+        return view;
+    }
+
+    private static Map<String, Object> userView(User user) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", user.getId());
+        view.put("type", user.getUserType());
+        view.put("name", user.getName());
+        view.put("email", user.getEmail());
+        view.put("active", user.isActive());
+        view.put("createdAt", String.valueOf(user.getCreatedAt()));
+        return view;
+    }
+
+    private static Map<String, Object> orderView(Order order) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        List<Map<String, Object>> items = new ArrayList<>();
+        synchronized (order) {
+            view.put("id", order.getId());
+            view.put("customerId", order.getCustomer().getId());
+            view.put("status", order.getStatus());
+            view.put("paymentMethod", order.getPaymentMethod());
+            view.put("orderDate", String.valueOf(order.getOrderDate()));
+            view.put("deliveryDate", order.getDeliveryDate() == null ? null : order.getDeliveryDate().toString());
+            for (OrderItem item : order.getItems()) {
+                Map<String, Object> itemView = new LinkedHashMap<>();
+                itemView.put("productId", item.getProduct().getId());
+                itemView.put("name", item.getProduct().getName());
+                itemView.put("quantity", item.getQuantity());
+                itemView.put("unitPrice", money(item.getUnitPrice()));
+                itemView.put("totalPrice", money(item.getTotalPrice()));
+                items.add(itemView);
+            }
+            view.put("items", items);
+            view.put("subtotal", money(order.getSubtotal()));
+            view.put("shipping", money(order.getShippingCost()));
+            view.put("discount", money(order.getDiscount()));
+            view.put("total", money(order.getTotalAmount()));
+        }
+        return view;
+    }
+
+    private static BigDecimal money(Money amount) {
+        return amount == null ? null : amount.toBigDecimal();
+    }
+
+    private static void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            response = route.apply(new Request(exchange));
+        } catch (IllegalArgumentException e) {
+            String message = String.valueOf(e.getMessage());
+            response = Response.error(message.contains("not found") ? 404 : 400, message);
+        } catch (PersistenceException e) {
+            LOGGER.error(() -> "Persistence failure for " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath(), e);
+            response = Response.error(500, "Internal server error");
+        } catch (IllegalStateException e) {
+            response = Response.error(409, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            response = Response.error(503, e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.error(() -> "Unhandled error for " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath(), e);
+            response = Response.error(500, "Internal server error");
+        }
+        byte[] payload = JsonUtil.toJson(response.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+
+    private static Long pathId(String segment) {
+        try {
+            return Long.valueOf(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID: " + segment);
+        }
+    }
+
+    private static Long optionalLong(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static int pageLimit(String value) {
+        Long limit = optionalLong(value, "limit");
+        return limit == null ? DEFAULT_PAGE_SIZE : (int) Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static String requiredString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty()) {
+            throw new IllegalArgumentException("Field '" + field + "' is required");
+        }
+        return (String) value;
+    }
+
+    private static String optionalString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        return value == null ? null : value.toString();
+    }
+
+    private static Long requiredLong(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof Long)) {
+            throw new IllegalArgumentException("Field '" + field + "' must be an integer");
+        }
+        return (Long) value;
+    }
+
+    private static int requiredInt(Map<String, Object> body, String field) {
+        try {
+            return Math.toIntExact(requiredLong(body, field));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Field '" + field + "' is out of range");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        Response apply(Request request);
+    }
+
+    private static final class Request {
+        final HttpExchange exchange;
+        final String[] path;
+
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            String rawPath = exchange.getRequestURI().getPath();
+            this.path = Arrays.stream(rawPath.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+        }
+
+        boolean is(String method) {
+            return method.equalsIgnoreCase(exchange.getRequestMethod());
+        }
+
+        String bearerToken() {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+                return null;
+            }
+            String token = authorization.substring(7).trim();
+            return token.isEmpty() ? null : token;
+        }
+
+        Map<String, String> query() {
+            Map<String, String> params = new HashMap<>();
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (rawQuery == null) {
+                return params;
+            }
+            for (String pair : rawQuery.split("&")) {
+                int split = pair.indexOf('=');
+                if (split > 0) {
+                    params.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+                }
+            }
+            return params;
+        }
+
+        Map<String, Object> body() {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body too large");
+                }
+                return JsonUtil.parseObject(new String(bytes, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read request body", e);
+            }
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final Object body;
+
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+
+        static Response notFound() {
+            return error(404, "Resource not found");
+        }
+
+        static Response unauthorized() {
+            return error(401, "Invalid or expired session");
+        }
+
+        static Response forbidden() {
+            return error(403, "Access denied");
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Map.of("error", String.valueOf(message)));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ecommerce.api;
+
+public final class RpcProtocol {
+    public static final int HEADER_SIZE = 9;
+    public static final int MAX_FRAME_SIZE = 1 << 20;
+
+    public static final byte GET_PRODUCT = 1;
+    public static final byte LIST_PRODUCTS = 2;
+    public static final byte GET_STOCK = 3;
+    public static final byte UPDATE_STOCK = 4;
+    public static final byte GET_ORDER = 10;
+    public static final byte CREATE_ORDER = 11;
+    public static final byte ADD_ITEM = 12;
+    public static final byte CONFIRM_ORDER = 13;
+    public static final byte PROCESS_ORDER = 14;
+    public static final byte SHIP_ORDER = 15;
+    public static final byte DELIVER_ORDER = 16;
+    public static final byte CANCEL_ORDER = 17;
+    public static final byte ADVANCE_ORDERS = 18;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_BAD_REQUEST = 1;
+    public static final byte STATUS_NOT_FOUND = 2;
+    public static final byte STATUS_CONFLICT = 3;
+    public static final byte STATUS_ERROR = 4;
+
+    private RpcProtocol() {
+    }
+}
@@ -0,0 +1,453 @@
+package ecommerce.api;
+
+import ecommerce.model.*;
+import ecommerce.repository.PersistenceException;
+import ecommerce.service.OrderService;
+import ecommerce.service.ProductService;
+import ecommerce.service.UserService;
+import ecommerce.util.Logger;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RpcServer implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(RpcServer.class);
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_IN_FLIGHT = 1024;
+    private static final int MAX_GATHER = 64;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ProductService productService;
+    private final UserService userService;
+    private final OrderService orderService;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ExecutorService workers;
+    private final Queue<Connection> pendingWrites;
+    private final Thread selectorThread;
+    private volatile boolean closed;
+
+    public RpcServer(int port, ProductService productService, UserService userService,
+                     OrderService orderService) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, productService, userService, orderService);
+    }
+
+    public RpcServer(InetAddress bindAddress, int port, ProductService productService, UserService userService,
+                     OrderService orderService) throws IOException {
+        this.productService = productService;
+        this.userService = userService;
+        this.orderService = orderService;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(bindAddress, port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newVirtualThreadPerTaskExecutor();
+        this.pendingWrites = new ConcurrentLinkedQueue<>();
+        this.selectorThread = new Thread(this::selectLoop, "rpc-selector");
+    }
+
+    public void start() {
+        selectorThread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.close();
+    }
+
+    private void selectLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                Connection connection;
+                while ((connection = pendingWrites.poll()) != null) {
+                    connection.writeScheduled.set(false);
+                    try {
+                        connection.updateInterest();
+                        processFrames(connection);
+                    } catch (IOException e) {
+                        closeQuietly(connection.key);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection selected = (Connection) key.attachment();
+                        if (key.isWritable()) {
+                            selected.flush();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            selected.read();
+                            processFrames(selected);
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        closeQuietly(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error(() -> "RPC server stopped", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(key, channel));
+    }
+
+    private void processFrames(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        if (!connection.key.isValid() || buffer.position() < Integer.BYTES) {
+            return;
+        }
+        buffer.flip();
+        try {
+            while (buffer.remaining() >= Integer.BYTES && connection.inFlight.get() < MAX_IN_FLIGHT) {
+                int length = buffer.getInt(buffer.position());
+                if (length < RpcProtocol.HEADER_SIZE || length > RpcProtocol.MAX_FRAME_SIZE) {
+                    throw new IOException("Invalid frame length: " + length);
+                }
+                if (buffer.remaining() < Integer.BYTES + length) {
+                    connection.ensureCapacity(Integer.BYTES + length);
+                    break;
+                }
+                buffer.getInt();
+                long correlationId = buffer.getLong();
+                byte opcode = buffer.get();
+                byte[] payload = new byte[length - RpcProtocol.HEADER_SIZE];
+                buffer.get(payload);
+                connection.inFlight.incrementAndGet();
+                workers.execute(() -> dispatch(connection, correlationId, opcode, payload));
+            }
+        } finally {
+            connection.readBuffer.compact();
+        }
+        connection.updateInterest();
+    }
+
+    private void dispatch(Connection connection, long correlationId, byte opcode, byte[] payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        byte status;
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            execute(opcode, in, new DataOutputStream(bytes));
+            status = RpcProtocol.STATUS_OK;
+        } catch (IllegalArgumentException e) {
+            String message = String.valueOf(e.getMessage());
+            status = message.contains("not found") ? RpcProtocol.STATUS_NOT_FOUND : RpcProtocol.STATUS_BAD_REQUEST;
+            bytes = errorPayload(message);
+        } catch (PersistenceException e) {
+            LOGGER.error(() -> "Persistence failure for opcode " + opcode, e);
+            status = RpcProtocol.STATUS_ERROR;
+            bytes = errorPayload("Internal server error");
+        } catch (IllegalStateException e) {
+            status = RpcProtocol.STATUS_CONFLICT;
+            bytes = errorPayload(e.getMessage());
+        } catch (EOFException e) {
+            status = RpcProtocol.STATUS_BAD_REQUEST;
+            bytes = errorPayload("Truncated request payload");
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error(() -> "Unhandled error for opcode " + opcode, e);
+            status = RpcProtocol.STATUS_ERROR;
+            bytes = errorPayload("Internal server error");
+        }
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + RpcProtocol.HEADER_SIZE + bytes.size());
+        frame.putInt(RpcProtocol.HEADER_SIZE + bytes.size()).putLong(correlationId).put(status)
+                .put(bytes.toByteArray()).flip();
+        connection.outbound.add(frame);
+        connection.inFlight.decrementAndGet();
+        if (connection.writeScheduled.compareAndSet(false, true)) {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    private void execute(byte opcode, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (opcode) {
+            case RpcProtocol.GET_PRODUCT:
+                writeProduct(out, productService.getProduct(in.readLong()));
+                break;
+            case RpcProtocol.LIST_PRODUCTS: {
+                Long afterId = in.readBoolean() ? in.readLong() : null;
+                int limit = Math.max(1, Math.min(in.readInt(), MAX_PAGE_SIZE));
+                String category = in.readBoolean() ? in.readUTF() : null;
+                List<Product> page = category == null
+                        ? productService.getProductsPage(afterId, limit)
+                        : productService.getProductsByCategory(category, afterId, limit);
+                out.writeInt(page.size());
+                for (Product product : page) {
+                    writeProduct(out, product);
+                }
+                break;
+            }
+            case RpcProtocol.GET_STOCK:
+                out.writeInt(physicalProduct(in.readLong()).getStockQuantity());
+                break;
+            case RpcProtocol.UPDATE_STOCK: {
+                long productId = in.readLong();
+                productService.updateStock(productId, in.readInt());
+                out.writeInt(physicalProduct(productId).getStockQuantity());
+                break;
+            }
+            case RpcProtocol.GET_ORDER:
+                writeOrder(out, orderService.getOrder(in.readLong()));
+                break;
+            case RpcProtocol.CREATE_ORDER:
+                writeOrder(out, createOrder(in));
+                break;
+            case RpcProtocol.ADD_ITEM: {
+                long orderId = in.readLong();
+                Product product = productService.getProduct(in.readLong());
+                orderService.addItemToOrder(orderId, product, in.readInt());
+                writeOrder(out, orderService.getOrder(orderId));
+                break;
+            }
+            case RpcProtocol.CONFIRM_ORDER: {
+                long orderId = in.readLong();
+                orderService.confirmOrder(orderId);
+                writeOrder(out, orderService.getOrder(orderId));
+                break;
+            }
+            case RpcProtocol.PROCESS_ORDER: {
+                long orderId = in.readLong();
+                orderService.processOrder(orderId);
+                writeOrder(out, orderService.getOrder(orderId));
+                break;
+            }
+            case RpcProtocol.SHIP_ORDER: {
+                long orderId = in.readLong();
+                orderService.shipOrder(orderId);
+                writeOrder(out, orderService.getOrder(orderId));
+                break;
+            }
+            case RpcProtocol.DELIVER_ORDER: {
+                long orderId = in.readLong();
+                orderService.deliverOrder(orderId);
+                writeOrder(out, orderService.getOrder(orderId));
+                break;
+            }
+            case RpcProtocol.CANCEL_ORDER: {
+                long orderId = in.readLong();
+                orderService.cancelOrder(orderId);
+                writeOrder(out, orderService.getOrder(orderId));
+                break;
+            }
+            case RpcProtocol.ADVANCE_ORDERS: {
+                Order.OrderStatus status = orderStatus(in.readByte());
+                int count = in.readInt();
+                checkCount(count);
+                List<Long> orderIds = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    orderIds.add(in.readLong());
+                }
+                out.writeInt(orderService.advanceOrders(status, orderIds));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown opcode: " + opcode);
+        }
+    }
+
+    private Order createOrder(DataInputStream in) throws IOException {
+        User user = userService.getUser(in.readLong());
+        if (!(user instanceof Customer)) {
+            throw new IllegalArgumentException("User is not a customer: " + user.getId());
+        }
+        String paymentMethod = in.readUTF();
+        int count = in.readInt();
+        checkCount(count);
+        if (count == 0) {
+            return orderService.createOrder((Customer) user, paymentMethod);
+        }
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = productService.getProduct(in.readLong());
+            items.add(new OrderItem(null, product, in.readInt()));
+        }
+        return orderService.createOrder((Customer) user, paymentMethod, items);
+    }
+
+    private PhysicalProduct physicalProduct(long productId) {
+        Product product = productService.getProduct(productId);
+        if (!(product instanceof PhysicalProduct)) {
+            throw new IllegalArgumentException("Product is not a physical product: " + productId);
+        }
+        return (PhysicalProduct) product;
+    }
+
+    private static void writeProduct(DataOutputStream out, Product product) throws IOException {
+        out.writeLong(product.getId());
+        out.writeUTF(product.getProductType());
+        out.writeUTF(product.getName());
+        out.writeUTF(product.getCategory());
+        out.writeLong(product.getPrice().getCents());
+        out.writeBoolean(product.isAvailable());
+        out.writeInt(product instanceof PhysicalProduct ? ((PhysicalProduct) product).getStockQuantity() : -1);
+    }
+
+    private static void writeOrder(DataOutputStream out, Order order) throws IOException {
+        synchronized (order) {
+            out.writeLong(order.getId());
+            out.writeLong(order.getCustomer().getId());
+            out.writeByte(order.getStatus().ordinal());
+            out.writeUTF(order.getPaymentMethod());
+            out.writeInt(order.getItems().size());
+            for (OrderItem item : order.getItems()) {
+                out.writeLong(item.getProduct().getId());
+                out.writeInt(item.getQuantity());
+                out.writeLong(item.getUnitPrice().getCents());
+                out.writeLong(item.getTotalPrice().getCents());
+            }
+            out.writeLong(order.getSubtotal().getCents());
+            out.writeLong(order.getShippingCost().getCents());
+            out.writeLong(order.getDiscount().getCents());
+            out.writeLong(order.getTotalCents());
+        }
+    }
+
+    private static Order.OrderStatus orderStatus(byte ordinal) {
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        if (ordinal < 0 || ordinal >= statuses.length) {
+            throw new IllegalArgumentException("Invalid order status: " + ordinal);
+        }
+        return statuses[ordinal];
+    }
+
+    private static void checkCount(int count) {
+        if (count < 0 || count > RpcProtocol.MAX_FRAME_SIZE / Long.BYTES) {
+            throw new IllegalArgumentException("Invalid element count: " + count);
+        }
+    }
+
+    private static ByteArrayOutputStream errorPayload(String message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            new DataOutputStream(bytes).writeUTF(String.valueOf(message));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes;
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Connection {
+        final SelectionKey key;
+        final SocketChannel channel;
+        final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicBoolean writeScheduled = new AtomicBoolean();
+        ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        Connection(SelectionKey key, SocketChannel channel) {
+            this.key = key;
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                throw new EOFException("Connection closed by peer");
+            }
+        }
+
+        void ensureCapacity(int frameSize) {
+            if (readBuffer.capacity() < frameSize) {
+                ByteBuffer grown = ByteBuffer.allocate(frameSize);
+                grown.put(readBuffer);
+                readBuffer = grown;
+                readBuffer.flip();
+            }
+        }
+
+        void flush() throws IOException {
+            ByteBuffer[] batch = new ByteBuffer[MAX_GATHER];
+            while (true) {
+                int count = 0;
+                for (ByteBuffer buffer : outbound) {
+                    batch[count++] = buffer;
+                    if (count == MAX_GATHER) {
+                        break;
+                    }
+                }
+                if (count == 0) {
+                    break;
+                }
+                channel.write(batch, 0, count);
+                for (int i = 0; i < count && !batch[i].hasRemaining(); i++) {
+                    outbound.poll();
+                }
+                if (batch[count - 1].hasRemaining()) {
+                    break;
+                }
+            }
+            updateInterest();
+        }
+
+        void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            int interest = 0;
+            if (!outbound.isEmpty()) {
+                interest |= SelectionKey.OP_WRITE;
+            }
+            if (inFlight.get() < MAX_IN_FLIGHT) {
+                interest |= SelectionKey.OP_READ;
+            }
+            key.interestOps(interest);
+        }
+    }
+}
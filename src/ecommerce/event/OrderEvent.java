@@ -0,0 +1,71 @@
+package ecommerce.event;
+
+import ecommerce.model.Money;
+import ecommerce.model.Order;
+import java.time.LocalDateTime;
+
+public final class OrderEvent {
+    private long sequence;
+    private OrderEventType type;
+    private Long orderId;
+    private Long customerId;
+    private Order.OrderStatus status;
+    private long totalCents;
+    private LocalDateTime occurredAt;
+
+    OrderEvent() {
+    }
+
+    void set(long sequence, OrderEventType type, Order order, LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.orderId = order.getId();
+        this.customerId = order.getCustomer() == null ? null : order.getCustomer().getId();
+        this.status = order.getStatus();
+        this.totalCents = order.getTotalCents();
+        this.occurredAt = occurredAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public OrderEventType getType() {
+        return type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public Money getTotalAmount() {
+        return Money.ofCents(totalCents);
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderEvent{" +
+                "sequence=" + sequence +
+                ", type=" + type +
+                ", orderId=" + orderId +
+                ", status=" + status +
+                ", total=" + getTotalAmount() +
+                '}';
+    }
+}
@@ -0,0 +1,173 @@
+package ecommerce.event;
+
+import ecommerce.model.Order;
+import ecommerce.util.Logger;
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class OrderEventBus implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(OrderEventBus.class);
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int SEQUENCE_STRIDE = 16;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    private final OrderEvent[] ring;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed;
+    private final List<Subscriber> subscribers;
+    private final List<Thread> consumers;
+    private AtomicLongArray consumed;
+    private volatile long gate;
+    private volatile boolean started;
+    private volatile boolean running;
+
+    public OrderEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OrderEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.ring = new OrderEvent[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            ring[i] = new OrderEvent();
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+        this.claimed = new AtomicLong();
+        this.subscribers = new ArrayList<>();
+        this.consumers = new ArrayList<>();
+        this.gate = -1L;
+    }
+
+    public synchronized void subscribe(String name, OrderEventListener listener) {
+        if (started) {
+            throw new IllegalStateException("Event bus already started");
+        }
+        subscribers.add(new Subscriber(name, listener));
+    }
+
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Event bus already started");
+        }
+        consumed = new AtomicLongArray(Math.max(1, subscribers.size()) * SEQUENCE_STRIDE);
+        for (int i = 0; i < subscribers.size(); i++) {
+            consumed.set(i * SEQUENCE_STRIDE, -1L);
+        }
+        running = true;
+        started = true;
+        for (int i = 0; i < subscribers.size(); i++) {
+            int index = i;
+            Thread thread = new Thread(() -> consume(index), "order-events-" + subscribers.get(i).name);
+            thread.setDaemon(true);
+            consumers.add(thread);
+            thread.start();
+        }
+    }
+
+    public void publish(OrderEventType type, Order order) {
+        publish(type, order, LocalDateTime.now());
+    }
+
+    public void publish(OrderEventType type, Order order, LocalDateTime occurredAt) {
+        if (!running || subscribers.isEmpty()) {
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        if (!awaitCapacity(sequence)) {
+            return;
+        }
+        int slot = (int) sequence & mask;
+        ring[slot].set(sequence, type, order, occurredAt);
+        published.set(slot, sequence);
+    }
+
+    @Override
+    public void close() {
+        List<Thread> threads;
+        synchronized (this) {
+            running = false;
+            threads = new ArrayList<>(consumers);
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean awaitCapacity(long sequence) {
+        long wrapPoint = sequence - ring.length;
+        while (wrapPoint > gate) {
+            long slowest = slowestConsumer();
+            gate = slowest;
+            if (wrapPoint <= slowest) {
+                break;
+            }
+            if (!running) {
+                return false;
+            }
+            LockSupport.parkNanos(1L);
+        }
+        return true;
+    }
+
+    private long slowestConsumer() {
+        long slowest = Long.MAX_VALUE;
+        for (int i = 0; i < subscribers.size(); i++) {
+            slowest = Math.min(slowest, consumed.get(i * SEQUENCE_STRIDE));
+        }
+        return slowest;
+    }
+
+    private void consume(int index) {
+        Subscriber subscriber = subscribers.get(index);
+        long next = consumed.get(index * SEQUENCE_STRIDE) + 1;
+        while (true) {
+            long available = next - 1;
+            while (available + 1 - next < ring.length
+                    && published.get((int) (available + 1) & mask) == available + 1) {
+                available++;
+            }
+            if (available < next) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            for (long sequence = next; sequence <= available; sequence++) {
+                try {
+                    subscriber.listener.onEvent(ring[(int) sequence & mask], sequence == available);
+                } catch (RuntimeException e) {
+                    LOGGER.error(() -> "Order event listener " + subscriber.name + " failed", e);
+                }
+            }
+            consumed.set(index * SEQUENCE_STRIDE, available);
+            next = available + 1;
+        }
+    }
+
+    private static final class Subscriber {
+        final String name;
+        final OrderEventListener listener;
+
+        Subscriber(String name, OrderEventListener listener) {
+            this.name = name;
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package ecommerce.event;
+
+@FunctionalInterface
+public interface OrderEventListener {
+    void onEvent(OrderEvent event, boolean endOfBatch);
+}
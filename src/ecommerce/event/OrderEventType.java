@@ -0,0 +1,5 @@
+package ecommerce.event;
+
+public enum OrderEventType {
+    PLACED, CONFIRMED, PROCESSING, SHIPPED, DELIVERED, CANCELLED
+}
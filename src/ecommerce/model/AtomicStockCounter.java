@@ -0,0 +1,73 @@
+package ecommerce.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AtomicStockCounter implements StockCounter {
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final AtomicInteger value;
+    private final long epoch;
+
+    public AtomicStockCounter(int stock) {
+        this(stock, 0L);
+    }
+
+    public AtomicStockCounter(int stock, long epoch) {
+        this.value = new AtomicInteger(stock);
+        this.epoch = epoch;
+    }
+
+    @Override
+    public Outcome tryReserve(int quantity) {
+        int current;
+        do {
+            current = value.get();
+            if (current == RETIRED) {
+                return Outcome.RETIRED;
+            }
+            if (current < quantity) {
+                return Outcome.INSUFFICIENT;
+            }
+        } while (!value.compareAndSet(current, current - quantity));
+        return Outcome.APPLIED;
+    }
+
+    @Override
+    public Outcome add(int delta) {
+        int current;
+        do {
+            current = value.get();
+            if (current == RETIRED) {
+                return Outcome.RETIRED;
+            }
+        } while (!value.compareAndSet(current, current + delta));
+        return Outcome.APPLIED;
+    }
+
+    @Override
+    public int available() {
+        int current = value.get();
+        return current == RETIRED ? 0 : current;
+    }
+
+    @Override
+    public long epoch() {
+        return epoch;
+    }
+
+    @Override
+    public boolean isRetired() {
+        return value.get() == RETIRED;
+    }
+
+    @Override
+    public int retire() {
+        int remaining = value.getAndSet(RETIRED);
+        return remaining == RETIRED ? 0 : remaining;
+    }
+
+    @Override
+    public StockCounter renew(int stock) {
+        return new AtomicStockCounter(stock, epoch + 1);
+    }
+}
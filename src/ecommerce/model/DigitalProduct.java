@@ -1,7 +1,5 @@
 package ecommerce.model;
 
-import java.math.BigDecimal;
-
 public class DigitalProduct extends Product {
     private String downloadUrl;
     private double fileSizeMB;
@@ -13,7 +11,7 @@ public class DigitalProduct extends Product {
         super();
     }
 
-    public DigitalProduct(Long id, String name, String description, BigDecimal price, String category,
+    public DigitalProduct(Long id, String name, String description, Money price, String category,
                          String downloadUrl, double fileSizeMB, String fileFormat, int downloadLimit, int validityDays) {
         super(id, name, description, price, category);
         this.downloadUrl = downloadUrl;
@@ -45,8 +43,8 @@ public class DigitalProduct extends Product {
     }
 
     @Override
-    public BigDecimal calculateShipping() {
-        return BigDecimal.ZERO;
+    public Money calculateShipping() {
+        return Money.ZERO;
     }
 
     public String generateDownloadLink() {
@@ -0,0 +1,6 @@
+package ecommerce.model;
+
+public interface Identifiable {
+    Long getId();
+    void setId(Long id);
+}
@@ -0,0 +1,140 @@
+package ecommerce.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0L);
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    private static final int SCALE = 2;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0L ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, ROUNDING);
+    }
+
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return ofCents(amount.setScale(SCALE, rounding).unscaledValue().longValueExact());
+    }
+
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public static long percentOf(long cents, int percentage) {
+        return percentOf(cents, percentage, ROUNDING);
+    }
+
+    public static long percentOf(long cents, int percentage, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, (long) percentage), 100L, rounding);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(int quantity) {
+        return ofCents(Math.multiplyExact(cents, (long) quantity));
+    }
+
+    public Money percent(int percentage) {
+        return ofCents(percentOf(cents, percentage));
+    }
+
+    public Money percent(int percentage, RoundingMode rounding) {
+        return ofCents(percentOf(cents, percentage, rounding));
+    }
+
+    public boolean isZero() {
+        return cents == 0L;
+    }
+
+    public boolean isPositive() {
+        return cents > 0L;
+    }
+
+    public boolean isNegative() {
+        return cents < 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && ((Money) o).cents == cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0L) {
+            return quotient;
+        }
+        int sign = (dividend < 0L) == (divisor < 0L) ? 1 : -1;
+        long twiceRemainder = Math.abs(remainder) * 2L;
+        long absDivisor = Math.abs(divisor);
+        boolean increment;
+        switch (rounding) {
+            case UP:
+                increment = true;
+                break;
+            case DOWN:
+                increment = false;
+                break;
+            case CEILING:
+                increment = sign > 0;
+                break;
+            case FLOOR:
+                increment = sign < 0;
+                break;
+            case HALF_UP:
+                increment = twiceRemainder >= absDivisor;
+                break;
+            case HALF_DOWN:
+                increment = twiceRemainder > absDivisor;
+                break;
+            case HALF_EVEN:
+                increment = twiceRemainder > absDivisor
+                        || (twiceRemainder == absDivisor && (quotient & 1L) != 0L);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+        return increment ? quotient + sign : quotient;
+    }
+}
@@ -1,18 +1,20 @@
 package ecommerce.model;
 
-import java.math.BigDecimal;
+import ecommerce.util.Logger;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
-public class Order {
+public class Order implements Identifiable {
+    private static final Logger LOGGER = Logger.getLogger(Order.class);
+
     private Long id;
     private Customer customer;
     private List<OrderItem> items;
-    private BigDecimal subtotal;
-    private BigDecimal shippingCost;
-    private BigDecimal discount;
-    private BigDecimal totalAmount;
+    private long subtotalCents;
+    private long shippingCents;
+    private long discountCents;
+    private long totalCents;
     private OrderStatus status;
     private String paymentMethod;
     private LocalDateTime orderDate;
@@ -26,10 +28,6 @@ public class Order {
         this.items = new ArrayList<>();
         this.orderDate = LocalDateTime.now();
         this.status = OrderStatus.PENDING;
-        this.subtotal = BigDecimal.ZERO;
-        this.shippingCost = BigDecimal.ZERO;
-        this.discount = BigDecimal.ZERO;
-        this.totalAmount = BigDecimal.ZERO;
     }
 
     public Order(Long id, Customer customer, String paymentMethod) {
@@ -39,73 +37,111 @@ public class Order {
         this.paymentMethod = paymentMethod;
     }
 
-    public void addItem(OrderItem item) {
+    public synchronized void addItem(OrderItem item) {
         this.items.add(item);
-        calculateTotals();
+        this.subtotalCents = Math.addExact(subtotalCents, item.getTotalPrice().getCents());
+        this.shippingCents = Math.addExact(shippingCents, item.getShippingCost().getCents());
+        updateTotal();
     }
 
-    public void removeItem(OrderItem item) {
-        this.items.remove(item);
-        calculateTotals();
+    public synchronized void removeItem(OrderItem item) {
+        if (this.items.remove(item)) {
+            this.subtotalCents = Math.subtractExact(subtotalCents, item.getTotalPrice().getCents());
+            this.shippingCents = Math.subtractExact(shippingCents, item.getShippingCost().getCents());
+            updateTotal();
+        }
     }
 
-    public void calculateTotals() {
-        this.subtotal = items.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public synchronized void updateItemQuantity(OrderItem item, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        if (!items.contains(item)) {
+            throw new IllegalArgumentException("Item does not belong to order #" + id);
+        }
+        long previousTotal = item.getTotalPrice().getCents();
+        item.setQuantity(quantity);
+        this.subtotalCents = Math.addExact(subtotalCents, item.getTotalPrice().getCents() - previousTotal);
+        updateTotal();
+    }
 
-        this.shippingCost = items.stream()
-                .map(item -> item.getProduct().calculateShipping())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public synchronized void calculateTotals() {
+        long subtotal = 0L;
+        long shipping = 0L;
+        for (OrderItem item : items) {
+            subtotal = Math.addExact(subtotal, item.getTotalPrice().getCents());
+            shipping = Math.addExact(shipping, item.getShippingCost().getCents());
+        }
+        this.subtotalCents = subtotal;
+        this.shippingCents = shipping;
+        updateTotal();
+    }
 
-        this.totalAmount = subtotal.add(shippingCost).subtract(discount);
+    public synchronized boolean verifyTotals() {
+        long expectedSubtotal = 0L;
+        long expectedShipping = 0L;
+        for (OrderItem item : items) {
+            expectedSubtotal += item.getTotalPrice().getCents();
+            expectedShipping += item.getShippingCost().getCents();
+        }
+        return expectedSubtotal == subtotalCents && expectedShipping == shippingCents
+                && expectedSubtotal + expectedShipping - discountCents == totalCents;
     }
 
-    public void applyDiscount(BigDecimal discountAmount) {
-        this.discount = discountAmount;
-        calculateTotals();
+    public synchronized void applyDiscount(Money discountAmount) {
+        this.discountCents = discountAmount.getCents();
+        updateTotal();
     }
 
-    public void applyDiscount(int discountPercentage) {
-        this.discount = subtotal.multiply(BigDecimal.valueOf(discountPercentage))
-                .divide(BigDecimal.valueOf(100));
-        calculateTotals();
+    public synchronized void applyDiscount(int discountPercentage) {
+        this.discountCents = Money.percentOf(subtotalCents, discountPercentage);
+        updateTotal();
     }
 
-    public void confirmOrder() {
+    public synchronized boolean confirmOrder() {
         if (status == OrderStatus.PENDING) {
             this.status = OrderStatus.CONFIRMED;
-            System.out.println("Order #" + id + " confirmed!");
+            LOGGER.info(() -> "Order #" + id + " confirmed!");
+            return true;
         }
+        return false;
     }
 
-    public void processOrder() {
+    public synchronized boolean processOrder() {
         if (status == OrderStatus.CONFIRMED) {
             this.status = OrderStatus.PROCESSING;
-            System.out.println("Order #" + id + " is being processed...");
+            LOGGER.info(() -> "Order #" + id + " is being processed...");
+            return true;
         }
+        return false;
     }
 
-    public void shipOrder() {
+    public synchronized boolean shipOrder() {
         if (status == OrderStatus.PROCESSING) {
             this.status = OrderStatus.SHIPPED;
-            System.out.println("Order #" + id + " has been shipped!");
+            LOGGER.info(() -> "Order #" + id + " has been shipped!");
+            return true;
         }
+        return false;
     }
 
-    public void deliverOrder() {
+    public synchronized boolean deliverOrder() {
         if (status == OrderStatus.SHIPPED) {
             this.status = OrderStatus.DELIVERED;
             this.deliveryDate = LocalDateTime.now();
-            System.out.println("Order #" + id + " delivered successfully!");
+            LOGGER.info(() -> "Order #" + id + " delivered successfully!");
+            return true;
         }
+        return false;
     }
 
-    public void cancelOrder() {
-        if (status != OrderStatus.DELIVERED) {
+    public synchronized boolean cancelOrder() {
+        if (status != OrderStatus.DELIVERED && status != OrderStatus.CANCELLED) {
             this.status = OrderStatus.CANCELLED;
-            System.out.println("Order #" + id + " has been cancelled.");
+            LOGGER.info(() -> "Order #" + id + " has been cancelled.");
+            return true;
         }
+        return false;
     }
 
     public void displayOrderSummary() {
@@ -120,10 +156,10 @@ public class Order {
                     " x" + item.getQuantity() +
                     " = R$ " + item.getTotalPrice());
         }
-        System.out.println("\nSubtotal: R$ " + subtotal);
-        System.out.println("Shipping: R$ " + shippingCost);
-        System.out.println("Discount: R$ " + discount);
-        System.out.println("TOTAL: R$ " + totalAmount);
+        System.out.println("\nSubtotal: R$ " + getSubtotal());
+        System.out.println("Shipping: R$ " + getShippingCost());
+        System.out.println("Discount: R$ " + getDiscount());
+        System.out.println("TOTAL: R$ " + getTotalAmount());
         System.out.println("Payment Method: " + paymentMethod);
     }
 
@@ -147,35 +183,47 @@ public class Order {
         return items;
     }
 
-    public void setItems(List<OrderItem> items) {
+    public synchronized void setItems(List<OrderItem> items) {
         this.items = items;
         calculateTotals();
     }
 
-    public BigDecimal getSubtotal() {
-        return subtotal;
+    public synchronized Money getSubtotal() {
+        return Money.ofCents(subtotalCents);
     }
 
-    public BigDecimal getShippingCost() {
-        return shippingCost;
+    public synchronized Money getShippingCost() {
+        return Money.ofCents(shippingCents);
     }
 
-    public BigDecimal getDiscount() {
-        return discount;
+    public synchronized Money getDiscount() {
+        return Money.ofCents(discountCents);
     }
 
-    public BigDecimal getTotalAmount() {
-        return totalAmount;
+    public synchronized Money getTotalAmount() {
+        return Money.ofCents(totalCents);
     }
 
-    public OrderStatus getStatus() {
+    public synchronized long getTotalCents() {
+        return totalCents;
+    }
+
+    public synchronized OrderStatus getStatus() {
         return status;
     }
 
-    public void setStatus(OrderStatus status) {
+    public synchronized void setStatus(OrderStatus status) {
         this.status = status;
     }
 
+    public synchronized boolean compareAndSetStatus(OrderStatus expected, OrderStatus status) {
+        if (this.status != expected) {
+            return false;
+        }
+        this.status = status;
+        return true;
+    }
+
     public String getPaymentMethod() {
         return paymentMethod;
     }
@@ -200,12 +248,16 @@ public class Order {
         this.deliveryDate = deliveryDate;
     }
 
+    private void updateTotal() {
+        this.totalCents = Math.subtractExact(Math.addExact(subtotalCents, shippingCents), discountCents);
+    }
+
     @Override
     public String toString() {
         return "Order{" +
                 "id=" + id +
                 ", customer=" + customer.getName() +
-                ", totalAmount=" + totalAmount +
+                ", totalAmount=" + getTotalAmount() +
                 ", status=" + status +
                 ", orderDate=" + orderDate +
                 '}';
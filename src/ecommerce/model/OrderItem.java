@@ -1,15 +1,15 @@
 package ecommerce.model;
 
-import java.math.BigDecimal;
-
 public class OrderItem {
     private Long id;
     private Product product;
     private int quantity;
-    private BigDecimal unitPrice;
-    private BigDecimal totalPrice;
+    private Money unitPrice;
+    private Money totalPrice;
+    private Money shippingCost;
 
     public OrderItem() {
+        this.shippingCost = Money.ZERO;
     }
 
     public OrderItem(Long id, Product product, int quantity) {
@@ -17,11 +17,21 @@ public class OrderItem {
         this.product = product;
         this.quantity = quantity;
         this.unitPrice = product.getPrice();
-        this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.totalPrice = unitPrice.times(quantity);
+        this.shippingCost = product.calculateShipping();
+    }
+
+    public OrderItem(Long id, Product product, int quantity, Money unitPrice, Money shippingCost) {
+        this.id = id;
+        this.product = product;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.totalPrice = unitPrice.times(quantity);
+        this.shippingCost = shippingCost;
     }
 
     public void calculateTotal() {
-        this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        this.totalPrice = unitPrice.times(quantity);
     }
 
     public Long getId() {
@@ -36,32 +46,25 @@ public class OrderItem {
         return product;
     }
 
-    public void setProduct(Product product) {
-        this.product = product;
-        this.unitPrice = product.getPrice();
-        calculateTotal();
-    }
-
     public int getQuantity() {
         return quantity;
     }
 
-    public void setQuantity(int quantity) {
+    void setQuantity(int quantity) {
         this.quantity = quantity;
         calculateTotal();
     }
 
-    public BigDecimal getUnitPrice() {
+    public Money getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(BigDecimal unitPrice) {
-        this.unitPrice = unitPrice;
-        calculateTotal();
+    public Money getTotalPrice() {
+        return totalPrice;
     }
 
-    public BigDecimal getTotalPrice() {
-        return totalPrice;
+    public Money getShippingCost() {
+        return shippingCost;
     }
 
     @Override
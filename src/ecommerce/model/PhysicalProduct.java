@@ -7,20 +7,21 @@ public class PhysicalProduct extends Product {
     private double height;
     private double width;
     private double length;
-    private int stockQuantity;
+    private volatile StockCounter stock;
 
     public PhysicalProduct() {
         super();
+        this.stock = new AtomicStockCounter(0);
     }
 
-    public PhysicalProduct(Long id, String name, String description, BigDecimal price, String category,
+    public PhysicalProduct(Long id, String name, String description, Money price, String category,
                           double weight, double height, double width, double length, int stockQuantity) {
         super(id, name, description, price, category);
         this.weight = weight;
         this.height = height;
         this.width = width;
         this.length = length;
-        this.stockQuantity = stockQuantity;
+        this.stock = new AtomicStockCounter(stockQuantity);
     }
 
     @Override
@@ -38,36 +39,99 @@ public class PhysicalProduct extends Product {
         System.out.println("Category: " + getCategory());
         System.out.println("Weight: " + weight + " kg");
         System.out.println("Dimensions: " + length + "x" + width + "x" + height + " cm");
-        System.out.println("Stock: " + stockQuantity + " units");
+        System.out.println("Stock: " + getStockQuantity() + " units");
         System.out.println("Shipping: R$ " + calculateShipping());
         System.out.println("Available: " + (isAvailable() ? "Yes" : "No"));
     }
 
     @Override
-    public BigDecimal calculateShipping() {
+    public Money calculateShipping() {
         double volumetricWeight = (length * width * height) / 6000;
         double finalWeight = Math.max(weight, volumetricWeight);
-        return BigDecimal.valueOf(finalWeight * 2.5 + 10);
+        return Money.of(BigDecimal.valueOf(finalWeight * 2.5 + 10));
     }
 
     public boolean hasStock() {
-        return stockQuantity > 0;
+        return getStockQuantity() > 0;
     }
 
     public boolean hasStock(int quantity) {
-        return stockQuantity >= quantity;
+        return getStockQuantity() >= quantity;
+    }
+
+    public boolean tryReserveStock(int quantity) {
+        return tryReserve(quantity) != null;
+    }
+
+    public StockChange tryReserve(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        while (true) {
+            StockCounter current = stock;
+            switch (current.tryReserve(quantity)) {
+                case APPLIED:
+                    return new StockChange(this, -quantity, current.epoch(), current instanceof ShardedStockCounter);
+                case INSUFFICIENT:
+                    return null;
+                default:
+                    Thread.onSpinWait();
+            }
+        }
+    }
+
+    public StockChange releaseStock(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+        return adjustStock(quantity);
     }
 
     public void reduceStock(int quantity) {
-        if (hasStock(quantity)) {
-            this.stockQuantity -= quantity;
-        } else {
+        if (!tryReserveStock(quantity)) {
             throw new IllegalStateException("Insufficient stock");
         }
     }
 
     public void addStock(int quantity) {
-        this.stockQuantity += quantity;
+        adjustStock(quantity);
+    }
+
+    public synchronized void enableShardedStock(int shards) {
+        StockCounter current = stock;
+        if (!(current instanceof ShardedStockCounter)) {
+            stock = new ShardedStockCounter(shards, current.retire(), current.epoch() + 1);
+        }
+    }
+
+    public synchronized void disableShardedStock() {
+        StockCounter current = stock;
+        if (current instanceof ShardedStockCounter) {
+            stock = new AtomicStockCounter(current.retire(), current.epoch() + 1);
+        }
+    }
+
+    public synchronized StockLevel checkpointStock() {
+        StockCounter current = stock;
+        if (!(current instanceof ShardedStockCounter)) {
+            return new StockLevel(current.available(), current.epoch());
+        }
+        int quantity = current.retire();
+        stock = current.renew(quantity);
+        return new StockLevel(quantity, current.epoch() + 1);
+    }
+
+    public synchronized void restoreStock(int quantity, long epoch) {
+        stock.retire();
+        stock = new AtomicStockCounter(quantity, epoch);
+    }
+
+    public long getStockEpoch() {
+        return stock.epoch();
+    }
+
+    public boolean isShardedStock() {
+        return stock instanceof ShardedStockCounter;
     }
 
     public double getWeight() {
@@ -103,11 +167,20 @@ public class PhysicalProduct extends Product {
     }
 
     public int getStockQuantity() {
-        return stockQuantity;
+        while (true) {
+            StockCounter current = stock;
+            int available = current.available();
+            if (!current.isRetired()) {
+                return available;
+            }
+            Thread.onSpinWait();
+        }
     }
 
-    public void setStockQuantity(int stockQuantity) {
-        this.stockQuantity = stockQuantity;
+    public synchronized void setStockQuantity(int stockQuantity) {
+        StockCounter current = stock;
+        current.retire();
+        stock = current.renew(stockQuantity);
     }
 
     @Override
@@ -116,8 +189,18 @@ public class PhysicalProduct extends Product {
                 "id=" + getId() +
                 ", name='" + getName() + '\'' +
                 ", price=" + getPrice() +
-                ", stock=" + stockQuantity +
+                ", stock=" + getStockQuantity() +
                 ", weight=" + weight + "kg" +
                 '}';
     }
+
+    private StockChange adjustStock(int delta) {
+        while (true) {
+            StockCounter current = stock;
+            if (current.add(delta) != StockCounter.Outcome.RETIRED) {
+                return new StockChange(this, delta, current.epoch(), current instanceof ShardedStockCounter);
+            }
+            Thread.onSpinWait();
+        }
+    }
 }
@@ -1,13 +1,12 @@
 package ecommerce.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-public abstract class Product {
+public abstract class Product implements Identifiable {
     private Long id;
     private String name;
     private String description;
-    private BigDecimal price;
+    private Money price;
     private String category;
     private LocalDateTime createdAt;
     private boolean available;
@@ -17,7 +16,7 @@ public abstract class Product {
         this.available = true;
     }
 
-    public Product(Long id, String name, String description, BigDecimal price, String category) {
+    public Product(Long id, String name, String description, Money price, String category) {
         this();
         this.id = id;
         this.name = name;
@@ -28,18 +27,18 @@ public abstract class Product {
 
     public abstract String getProductType();
     public abstract void displayProductDetails();
-    public abstract BigDecimal calculateShipping();
+    public abstract Money calculateShipping();
 
-    public BigDecimal calculateDiscount(int percentage) {
-        return price.multiply(BigDecimal.valueOf(percentage)).divide(BigDecimal.valueOf(100));
+    public Money calculateDiscount(int percentage) {
+        return price.percent(percentage);
     }
 
-    public BigDecimal calculateDiscount(BigDecimal discountAmount) {
+    public Money calculateDiscount(Money discountAmount) {
         return discountAmount;
     }
 
-    public BigDecimal getFinalPrice(int discountPercentage) {
-        return price.subtract(calculateDiscount(discountPercentage));
+    public Money getFinalPrice(int discountPercentage) {
+        return price.minus(calculateDiscount(discountPercentage));
     }
 
     public Long getId() {
@@ -66,11 +65,11 @@ public abstract class Product {
         this.description = description;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
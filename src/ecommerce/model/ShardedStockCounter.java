@@ -0,0 +1,186 @@
+package ecommerce.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ShardedStockCounter implements StockCounter {
+    private static final int CELL_STRIDE = 16;
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final AtomicLongArray cells;
+    private final int shards;
+    private final int mask;
+    private final ReentrantLock rebalanceLock;
+    private final long epoch;
+
+    public ShardedStockCounter(int stock) {
+        this(Runtime.getRuntime().availableProcessors(), stock);
+    }
+
+    public ShardedStockCounter(int shards, int stock) {
+        this(shards, stock, 0L);
+    }
+
+    public ShardedStockCounter(int shards, int stock, long epoch) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shard count must be greater than zero");
+        }
+        this.shards = Integer.highestOneBit(Math.max(1, shards - 1)) << 1;
+        this.mask = this.shards - 1;
+        this.cells = new AtomicLongArray(this.shards * CELL_STRIDE);
+        this.rebalanceLock = new ReentrantLock();
+        this.epoch = epoch;
+        spread(stock);
+    }
+
+    @Override
+    public Outcome tryReserve(int quantity) {
+        int home = homeShard();
+        for (int probe = 0; probe < shards; probe++) {
+            int cell = cellIndex((home + probe) & mask);
+            long current;
+            do {
+                current = cells.get(cell);
+                if (current == RETIRED) {
+                    return Outcome.RETIRED;
+                }
+            } while (current >= quantity && !cells.compareAndSet(cell, current, current - quantity));
+            if (current >= quantity) {
+                return Outcome.APPLIED;
+            }
+        }
+        return reserveSlow(quantity);
+    }
+
+    @Override
+    public Outcome add(int delta) {
+        if (delta < 0) {
+            return adjustSlow(delta);
+        }
+        int cell = cellIndex(homeShard());
+        long current;
+        do {
+            current = cells.get(cell);
+            if (current == RETIRED) {
+                return Outcome.RETIRED;
+            }
+        } while (!cells.compareAndSet(cell, current, current + delta));
+        return Outcome.APPLIED;
+    }
+
+    @Override
+    public int available() {
+        long total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            long current = cells.get(cellIndex(shard));
+            if (current == RETIRED) {
+                return 0;
+            }
+            total += current;
+        }
+        return (int) total;
+    }
+
+    @Override
+    public long epoch() {
+        return epoch;
+    }
+
+    @Override
+    public boolean isRetired() {
+        return cells.get(cellIndex(0)) == RETIRED;
+    }
+
+    @Override
+    public int retire() {
+        rebalanceLock.lock();
+        try {
+            long total = 0;
+            for (int shard = 0; shard < shards; shard++) {
+                long previous = cells.getAndSet(cellIndex(shard), RETIRED);
+                if (previous != RETIRED) {
+                    total += previous;
+                }
+            }
+            return (int) total;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    @Override
+    public StockCounter renew(int stock) {
+        return new ShardedStockCounter(shards, stock, epoch + 1);
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    private Outcome reserveSlow(int quantity) {
+        rebalanceLock.lock();
+        try {
+            long total = drain();
+            if (total == RETIRED) {
+                return Outcome.RETIRED;
+            }
+            if (total < quantity) {
+                spread(total);
+                return Outcome.INSUFFICIENT;
+            }
+            spread(total - quantity);
+            return Outcome.APPLIED;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private Outcome adjustSlow(int delta) {
+        rebalanceLock.lock();
+        try {
+            long total = drain();
+            if (total == RETIRED) {
+                return Outcome.RETIRED;
+            }
+            spread(total + delta);
+            return Outcome.APPLIED;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private long drain() {
+        if (cells.get(cellIndex(0)) == RETIRED) {
+            return RETIRED;
+        }
+        long total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            total += cells.getAndSet(cellIndex(shard), 0L);
+        }
+        return total;
+    }
+
+    private void spread(long total) {
+        if (total <= 0) {
+            cells.addAndGet(cellIndex(0), total);
+            return;
+        }
+        long share = total / shards;
+        long remainder = total % shards;
+        for (int shard = 0; shard < shards; shard++) {
+            long amount = share + (shard < remainder ? 1 : 0);
+            if (amount > 0) {
+                cells.addAndGet(cellIndex(shard), amount);
+            }
+        }
+    }
+
+    private int homeShard() {
+        long mixed = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & mask;
+    }
+
+    private static int cellIndex(int shard) {
+        return shard * CELL_STRIDE;
+    }
+}
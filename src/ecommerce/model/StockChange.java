@@ -0,0 +1,31 @@
+package ecommerce.model;
+
+public final class StockChange {
+    private final PhysicalProduct product;
+    private final int delta;
+    private final long epoch;
+    private final boolean sharded;
+
+    StockChange(PhysicalProduct product, int delta, long epoch, boolean sharded) {
+        this.product = product;
+        this.delta = delta;
+        this.epoch = epoch;
+        this.sharded = sharded;
+    }
+
+    public PhysicalProduct getProduct() {
+        return product;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+}
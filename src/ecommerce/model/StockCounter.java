@@ -0,0 +1,21 @@
+package ecommerce.model;
+
+public interface StockCounter {
+    enum Outcome {
+        APPLIED, INSUFFICIENT, RETIRED
+    }
+
+    Outcome tryReserve(int quantity);
+
+    Outcome add(int delta);
+
+    int available();
+
+    long epoch();
+
+    boolean isRetired();
+
+    int retire();
+
+    StockCounter renew(int stock);
+}
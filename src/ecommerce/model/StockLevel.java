@@ -0,0 +1,19 @@
+package ecommerce.model;
+
+public final class StockLevel {
+    private final int quantity;
+    private final long epoch;
+
+    StockLevel(int quantity, long epoch) {
+        this.quantity = quantity;
+        this.epoch = epoch;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+}
@@ -2,7 +2,7 @@ package ecommerce.model;
 
 import java.time.LocalDateTime;
 
-public abstract class User {
+public abstract class User implements Identifiable {
     private Long id;
     private String name;
     private String email;
@@ -0,0 +1,292 @@
+package ecommerce.persistence;
+
+import ecommerce.util.Logger;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class DurableStore implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(DurableStore.class);
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final byte ADJUST = 3;
+    private static final int SNAPSHOT_MAGIC = 0x45534E50;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final byte SNAPSHOT_END = 0;
+    private static final long SNAPSHOT_WINDOW = 1L << 30;
+
+    private final Path directory;
+    private final WriteAheadLog log;
+    private final Map<Byte, Registration<?>> registrations;
+    private final Object snapshotLock;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public DurableStore(Path directory) throws IOException {
+        this.directory = directory;
+        this.log = WriteAheadLog.open(directory);
+        this.registrations = new LinkedHashMap<>();
+        this.snapshotLock = new Object();
+    }
+
+    public synchronized <T> void register(Journaled<T> repository, EntityCodec<T> codec) {
+        if (codec.tag() == SNAPSHOT_END) {
+            throw new IllegalArgumentException("Record tag is reserved: " + codec.tag());
+        }
+        if (registrations.putIfAbsent(codec.tag(), new Registration<>(repository, codec)) != null) {
+            throw new IllegalArgumentException("Record tag already registered: " + codec.tag());
+        }
+    }
+
+    public synchronized void recover() throws IOException {
+        long fromLsn = loadSnapshot();
+        log.replay(fromLsn, (lsn, payload) -> applyRecord(payload));
+        for (Registration<?> registration : registrations.values()) {
+            registration.resolveReferences();
+        }
+        for (Registration<?> registration : registrations.values()) {
+            registration.attach();
+        }
+    }
+
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long lsn = log.roll();
+            Path target = directory.resolve(SNAPSHOT_FILE);
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(WriteAheadLog.FORMAT_VERSION);
+                out.writeLong(lsn);
+                out.writeInt(registrations.size());
+                for (Registration<?> registration : registrations.values()) {
+                    out.writeByte(registration.codec.tag());
+                    out.writeLong(registration.repository.getNextId());
+                }
+                for (Registration<?> registration : registrations.values()) {
+                    registration.writeSnapshot(out);
+                }
+                out.writeByte(SNAPSHOT_END);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.deleteSegmentsBefore(lsn);
+        }
+    }
+
+    public synchronized void scheduleSnapshots(Duration interval) {
+        if (snapshotScheduler != null) {
+            throw new IllegalStateException("Snapshots already scheduled");
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error(() -> "Snapshot failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+            }
+        }
+        synchronized (snapshotLock) {
+            log.close();
+        }
+    }
+
+    private long loadSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0L;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedSnapshot snapshot = new MappedSnapshot(channel);
+            ByteBuffer header = snapshot.require(16);
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != WriteAheadLog.FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot: " + file);
+            }
+            long lsn = header.getLong();
+            int counters = snapshot.require(4).getInt();
+            for (int i = 0; i < counters; i++) {
+                Registration<?> registration = registrationFor(snapshot.require(1).get());
+                registration.repository.restoreNextId(snapshot.require(8).getLong());
+            }
+            while (true) {
+                byte tag = snapshot.require(1).get();
+                if (tag == SNAPSHOT_END) {
+                    return lsn;
+                }
+                Registration<?> registration = registrationFor(tag);
+                int length = snapshot.require(4).getInt();
+                ByteBuffer buffer = snapshot.require(length);
+                ByteBuffer entity = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                registration.replayPut(new DataInputStream(new ByteBufferInputStream(entity)));
+            }
+        }
+    }
+
+    private void applyRecord(ByteBuffer payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(payload));
+        int entries = in.readInt();
+        for (int i = 0; i < entries; i++) {
+            Registration<?> registration = registrationFor(in.readByte());
+            byte operation = in.readByte();
+            if (operation == PUT) {
+                registration.replayPut(in);
+            } else if (operation == DELETE) {
+                registration.repository.replayDelete(in.readLong());
+            } else if (operation == ADJUST) {
+                registration.repository.replayAdjust(in.readLong(), in.readLong(), in.readInt());
+            } else {
+                throw new IOException("Unknown record operation: " + operation);
+            }
+        }
+    }
+
+    private Registration<?> registrationFor(byte tag) throws IOException {
+        Registration<?> registration = registrations.get(tag);
+        if (registration == null) {
+            throw new IOException("Unknown record tag: " + tag);
+        }
+        return registration;
+    }
+
+    private static final class MappedSnapshot {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedSnapshot(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        ByteBuffer require(int bytes) throws IOException {
+            if (window == null || window.remaining() < bytes) {
+                long position = window == null ? 0L : windowStart + window.position();
+                if (position + bytes > size) {
+                    throw new EOFException("Truncated snapshot at offset " + position);
+                }
+                long length = Math.min(size - position, Math.max(bytes, SNAPSHOT_WINDOW));
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                windowStart = position;
+            }
+            return window;
+        }
+    }
+
+    private final class Registration<T> implements Journal<T> {
+        private final Journaled<T> repository;
+        private final EntityCodec<T> codec;
+
+        Registration(Journaled<T> repository, EntityCodec<T> codec) {
+            this.repository = repository;
+            this.codec = codec;
+        }
+
+        void attach() {
+            repository.attachJournal(this);
+        }
+
+        void replayPut(DataInput in) throws IOException {
+            repository.replayPut(codec.read(in));
+        }
+
+        void resolveReferences() {
+            repository.visitEntities(codec::resolveReferences);
+        }
+
+        void writeSnapshot(DataOutputStream out) throws IOException {
+            ByteArrayOutputStream entityBytes = new ByteArrayOutputStream(256);
+            DataOutputStream entityOut = new DataOutputStream(entityBytes);
+            try {
+                repository.visitEntities(entity -> {
+                    try {
+                        entityBytes.reset();
+                        codec.write(entity, entityOut);
+                        out.writeByte(codec.tag());
+                        out.writeInt(entityBytes.size());
+                        entityBytes.writeTo(out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public boolean isWritable() {
+            return log.isWritable();
+        }
+
+        @Override
+        public CompletableFuture<Long> logWrites(List<T> puts, Collection<Long> deletes) {
+            JournalRecord record = newRecord();
+            addWrites(record, puts, deletes);
+            return record.append();
+        }
+
+        @Override
+        public JournalRecord newRecord() {
+            return new JournalRecord(log);
+        }
+
+        @Override
+        public void addAdjustment(JournalRecord record, Long id, long version, int delta) {
+            if (!record.belongsTo(log)) {
+                throw new IllegalArgumentException("Journal record belongs to a different store");
+            }
+            record.addAdjustment(codec.tag(), id, version, delta);
+        }
+
+        @Override
+        public void addWrites(JournalRecord record, List<T> puts, Collection<Long> deletes) {
+            if (!record.belongsTo(log)) {
+                throw new IllegalArgumentException("Journal record belongs to a different store");
+            }
+            record.add(codec, puts, deletes);
+        }
+    }
+}
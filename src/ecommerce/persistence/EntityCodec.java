@@ -0,0 +1,14 @@
+package ecommerce.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface EntityCodec<T> {
+    byte tag();
+    void write(T entity, DataOutput out) throws IOException;
+    T read(DataInput in) throws IOException;
+
+    default void resolveReferences(T entity) {
+    }
+}
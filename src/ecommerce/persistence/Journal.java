@@ -0,0 +1,13 @@
+package ecommerce.persistence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface Journal<T> {
+    boolean isWritable();
+    CompletableFuture<Long> logWrites(List<T> puts, Collection<Long> deletes);
+    JournalRecord newRecord();
+    void addWrites(JournalRecord record, List<T> puts, Collection<Long> deletes);
+    void addAdjustment(JournalRecord record, Long id, long version, int delta);
+}
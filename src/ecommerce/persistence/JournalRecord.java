@@ -0,0 +1,69 @@
+package ecommerce.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public final class JournalRecord {
+    private final WriteAheadLog log;
+    private final ByteArrayOutputStream bytes;
+    private final DataOutputStream out;
+    private int entries;
+
+    JournalRecord(WriteAheadLog log) {
+        this.log = log;
+        this.bytes = new ByteArrayOutputStream(256);
+        this.out = new DataOutputStream(bytes);
+    }
+
+    <T> void add(EntityCodec<T> codec, List<T> puts, Collection<Long> deletes) {
+        try {
+            for (T entity : puts) {
+                out.writeByte(codec.tag());
+                out.writeByte(DurableStore.PUT);
+                codec.write(entity, out);
+            }
+            for (Long id : deletes) {
+                out.writeByte(codec.tag());
+                out.writeByte(DurableStore.DELETE);
+                out.writeLong(id);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entries += puts.size() + deletes.size();
+    }
+
+    void addAdjustment(byte tag, Long id, long version, int delta) {
+        try {
+            out.writeByte(tag);
+            out.writeByte(DurableStore.ADJUST);
+            out.writeLong(id);
+            out.writeLong(version);
+            out.writeInt(delta);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entries++;
+    }
+
+    boolean belongsTo(WriteAheadLog log) {
+        return this.log == log;
+    }
+
+    public boolean isEmpty() {
+        return entries == 0;
+    }
+
+    public CompletableFuture<Long> append() {
+        byte[] payload = new byte[Integer.BYTES + bytes.size()];
+        ByteBuffer.wrap(payload).putInt(entries);
+        System.arraycopy(bytes.toByteArray(), 0, payload, Integer.BYTES, bytes.size());
+        return log.append(payload);
+    }
+}
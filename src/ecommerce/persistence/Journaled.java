@@ -0,0 +1,13 @@
+package ecommerce.persistence;
+
+import java.util.function.Consumer;
+
+public interface Journaled<T> {
+    void attachJournal(Journal<T> journal);
+    void replayPut(T entity);
+    void replayDelete(Long id);
+    void replayAdjust(Long id, long version, int delta);
+    void visitEntities(Consumer<T> visitor);
+    long getNextId();
+    void restoreNextId(long nextId);
+}
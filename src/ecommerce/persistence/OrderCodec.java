@@ -0,0 +1,118 @@
+package ecommerce.persistence;
+
+import ecommerce.model.Customer;
+import ecommerce.model.Money;
+import ecommerce.model.Order;
+import ecommerce.model.OrderItem;
+import ecommerce.model.Product;
+import ecommerce.model.User;
+import ecommerce.repository.ProductRepository;
+import ecommerce.repository.UserRepository;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ecommerce.persistence.BinaryCodecs.*;
+
+public class OrderCodec implements EntityCodec<Order> {
+    public static final byte TAG = 3;
+
+    private final ProductCodec productCodec;
+    private final UserCodec userCodec;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+
+    public OrderCodec(ProductRepository productRepository, UserRepository userRepository) {
+        this.productCodec = new ProductCodec();
+        this.userCodec = new UserCodec();
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public void write(Order order, DataOutput out) throws IOException {
+        synchronized (order) {
+            writeLong(out, order.getId());
+            out.writeBoolean(order.getCustomer() != null);
+            if (order.getCustomer() != null) {
+                userCodec.write(order.getCustomer(), out);
+            }
+            out.writeInt(order.getItems().size());
+            for (OrderItem item : order.getItems()) {
+                writeLong(out, item.getId());
+                out.writeInt(item.getQuantity());
+                writeMoney(out, item.getUnitPrice());
+                writeMoney(out, item.getShippingCost());
+                productCodec.writeCopy(item.getProduct(), out);
+            }
+            writeMoney(out, order.getDiscount());
+            out.writeUTF(order.getStatus().name());
+            writeString(out, order.getPaymentMethod());
+            writeDateTime(out, order.getOrderDate());
+            writeDateTime(out, order.getDeliveryDate());
+        }
+    }
+
+    @Override
+    public Order read(DataInput in) throws IOException {
+        Order order = new Order();
+        order.setId(readLong(in));
+        if (in.readBoolean()) {
+            order.setCustomer((Customer) userCodec.read(in));
+        }
+        int itemCount = in.readInt();
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Long itemId = readLong(in);
+            int quantity = in.readInt();
+            Money unitPrice = readMoney(in);
+            Money shippingCost = readMoney(in);
+            items.add(new OrderItem(itemId, productCodec.read(in), quantity, unitPrice, shippingCost));
+        }
+        order.setItems(items);
+        order.applyDiscount(readMoney(in));
+        order.setStatus(Order.OrderStatus.valueOf(in.readUTF()));
+        order.setPaymentMethod(readString(in));
+        order.setOrderDate(readDateTime(in));
+        order.setDeliveryDate(readDateTime(in));
+        return order;
+    }
+
+    @Override
+    public void resolveReferences(Order order) {
+        synchronized (order) {
+            if (order.getCustomer() != null) {
+                order.setCustomer(resolveCustomer(order.getCustomer()));
+            }
+            List<OrderItem> items = new ArrayList<>(order.getItems().size());
+            for (OrderItem item : order.getItems()) {
+                Product product = resolveProduct(item.getProduct());
+                items.add(product == item.getProduct() ? item : new OrderItem(item.getId(), product,
+                        item.getQuantity(), item.getUnitPrice(), item.getShippingCost()));
+            }
+            order.setItems(items);
+        }
+    }
+
+    private Customer resolveCustomer(Customer stored) {
+        if (stored.getId() == null) {
+            return stored;
+        }
+        User current = userRepository.findById(stored.getId()).orElse(null);
+        return current instanceof Customer ? (Customer) current : stored;
+    }
+
+    private Product resolveProduct(Product stored) {
+        if (stored.getId() == null) {
+            return stored;
+        }
+        return productRepository.findById(stored.getId()).orElse(stored);
+    }
+}
@@ -0,0 +1,103 @@
+package ecommerce.persistence;
+
+import ecommerce.model.DigitalProduct;
+import ecommerce.model.PhysicalProduct;
+import ecommerce.model.Product;
+import ecommerce.model.StockLevel;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static ecommerce.persistence.BinaryCodecs.*;
+
+public class ProductCodec implements EntityCodec<Product> {
+    public static final byte TAG = 1;
+
+    private static final byte PHYSICAL = 1;
+    private static final byte DIGITAL = 2;
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public void write(Product product, DataOutput out) throws IOException {
+        write(product, out, true);
+    }
+
+    void writeCopy(Product product, DataOutput out) throws IOException {
+        write(product, out, false);
+    }
+
+    private void write(Product product, DataOutput out, boolean checkpoint) throws IOException {
+        out.writeByte(product instanceof PhysicalProduct ? PHYSICAL : DIGITAL);
+        writeLong(out, product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getDescription());
+        writeMoney(out, product.getPrice());
+        writeString(out, product.getCategory());
+        writeDateTime(out, product.getCreatedAt());
+        out.writeBoolean(product.isAvailable());
+
+        if (product instanceof PhysicalProduct) {
+            PhysicalProduct physicalProduct = (PhysicalProduct) product;
+            out.writeDouble(physicalProduct.getWeight());
+            out.writeDouble(physicalProduct.getHeight());
+            out.writeDouble(physicalProduct.getWidth());
+            out.writeDouble(physicalProduct.getLength());
+            if (checkpoint) {
+                StockLevel level = physicalProduct.checkpointStock();
+                out.writeInt(level.getQuantity());
+                out.writeLong(level.getEpoch());
+            } else {
+                out.writeInt(physicalProduct.getStockQuantity());
+                out.writeLong(physicalProduct.getStockEpoch());
+            }
+        } else {
+            DigitalProduct digitalProduct = (DigitalProduct) product;
+            writeString(out, digitalProduct.getDownloadUrl());
+            out.writeDouble(digitalProduct.getFileSizeMB());
+            writeString(out, digitalProduct.getFileFormat());
+            out.writeInt(digitalProduct.getDownloadLimit());
+            out.writeInt(digitalProduct.getValidityDays());
+        }
+    }
+
+    @Override
+    public Product read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        Product product;
+        if (type == PHYSICAL) {
+            product = new PhysicalProduct();
+        } else if (type == DIGITAL) {
+            product = new DigitalProduct();
+        } else {
+            throw new IOException("Unknown product type: " + type);
+        }
+        product.setId(readLong(in));
+        product.setName(readString(in));
+        product.setDescription(readString(in));
+        product.setPrice(readMoney(in));
+        product.setCategory(readString(in));
+        product.setCreatedAt(readDateTime(in));
+        product.setAvailable(in.readBoolean());
+
+        if (product instanceof PhysicalProduct) {
+            PhysicalProduct physicalProduct = (PhysicalProduct) product;
+            physicalProduct.setWeight(in.readDouble());
+            physicalProduct.setHeight(in.readDouble());
+            physicalProduct.setWidth(in.readDouble());
+            physicalProduct.setLength(in.readDouble());
+            physicalProduct.restoreStock(in.readInt(), in.readLong());
+        } else {
+            DigitalProduct digitalProduct = (DigitalProduct) product;
+            digitalProduct.setDownloadUrl(readString(in));
+            digitalProduct.setFileSizeMB(in.readDouble());
+            digitalProduct.setFileFormat(readString(in));
+            digitalProduct.setDownloadLimit(in.readInt());
+            digitalProduct.setValidityDays(in.readInt());
+        }
+        return product;
+    }
+}
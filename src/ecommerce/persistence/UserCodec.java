@@ -0,0 +1,92 @@
+package ecommerce.persistence;
+
+import ecommerce.model.Admin;
+import ecommerce.model.Customer;
+import ecommerce.model.User;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ecommerce.persistence.BinaryCodecs.*;
+
+public class UserCodec implements EntityCodec<User> {
+    public static final byte TAG = 2;
+
+    private static final byte CUSTOMER = 1;
+    private static final byte ADMIN = 2;
+
+    @Override
+    public byte tag() {
+        return TAG;
+    }
+
+    @Override
+    public void write(User user, DataOutput out) throws IOException {
+        out.writeByte(user instanceof Customer ? CUSTOMER : ADMIN);
+        writeLong(out, user.getId());
+        writeString(out, user.getName());
+        writeString(out, user.getEmail());
+        writeString(out, user.getPassword());
+        writeDateTime(out, user.getCreatedAt());
+        out.writeBoolean(user.isActive());
+
+        if (user instanceof Customer) {
+            Customer customer = (Customer) user;
+            writeString(out, customer.getCpf());
+            writeString(out, customer.getAddress());
+            writeString(out, customer.getPhone());
+        } else {
+            Admin admin = (Admin) user;
+            writeString(out, admin.getDepartment());
+            writeString(out, admin.getEmployeeCode());
+            List<String> permissions = admin.getPermissions();
+            out.writeInt(permissions == null ? -1 : permissions.size());
+            if (permissions != null) {
+                for (String permission : permissions) {
+                    out.writeUTF(permission);
+                }
+            }
+        }
+    }
+
+    @Override
+    public User read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        User user;
+        if (type == CUSTOMER) {
+            user = new Customer();
+        } else if (type == ADMIN) {
+            user = new Admin();
+        } else {
+            throw new IOException("Unknown user type: " + type);
+        }
+        user.setId(readLong(in));
+        user.setName(readString(in));
+        user.setEmail(readString(in));
+        user.setPassword(readString(in));
+        user.setCreatedAt(readDateTime(in));
+        user.setActive(in.readBoolean());
+
+        if (user instanceof Customer) {
+            Customer customer = (Customer) user;
+            customer.setCpf(readString(in));
+            customer.setAddress(readString(in));
+            customer.setPhone(readString(in));
+        } else {
+            Admin admin = (Admin) user;
+            admin.setDepartment(readString(in));
+            admin.setEmployeeCode(readString(in));
+            int count = in.readInt();
+            if (count >= 0) {
+                List<String> permissions = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    permissions.add(in.readUTF());
+                }
+                admin.setPermissions(permissions);
+            }
+        }
+        return user;
+    }
+}
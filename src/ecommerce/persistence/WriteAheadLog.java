@@ -0,0 +1,326 @@
+package ecommerce.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+public class WriteAheadLog implements Closeable {
+    static final int FORMAT_VERSION = 5;
+
+    private static final int SEGMENT_MAGIC = 0x45574C47;
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 << 20;
+    private static final int MAX_BATCH = 1024;
+
+    private final Path directory;
+    private final BlockingQueue<PendingAppend> pending;
+    private final Thread flusher;
+    private FileChannel channel;
+    private long position;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long lsn, ByteBuffer payload) throws IOException;
+    }
+
+    private WriteAheadLog(Path directory) {
+        this.directory = directory;
+        this.pending = new LinkedBlockingQueue<>();
+        this.flusher = new Thread(this::flushLoop, "wal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    public static WriteAheadLog open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.openTail();
+        log.flusher.start();
+        return log;
+    }
+
+    public CompletableFuture<Long> append(byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        PendingAppend append = new PendingAppend(frame);
+        pending.add(append);
+        return append.result;
+    }
+
+    public boolean isWritable() {
+        return !closed && failure == null;
+    }
+
+    public long roll() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        PendingAppend roll = new PendingAppend(null);
+        pending.add(roll);
+        try {
+            return roll.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    public void deleteSegmentsBefore(long lsn) throws IOException {
+        for (long base : listSegments()) {
+            if (base < lsn) {
+                Files.deleteIfExists(segmentPath(base));
+            }
+        }
+    }
+
+    public void replay(long fromLsn, RecordHandler handler) throws IOException {
+        List<Long> bases = listSegments();
+        for (int i = 0; i < bases.size(); i++) {
+            long base = bases.get(i);
+            boolean last = i == bases.size() - 1;
+            if (!last && bases.get(i + 1) <= fromLsn) {
+                continue;
+            }
+            Path file = segmentPath(base);
+            long end = scanSegment(file, base, fromLsn, handler);
+            if (!last && end != Files.size(file)) {
+                throw new IOException("Corrupted log segment: " + file);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.add(PendingAppend.SHUTDOWN);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingAppend> leftovers = new ArrayList<>();
+        pending.drainTo(leftovers);
+        for (PendingAppend append : leftovers) {
+            append.result.completeExceptionally(new IllegalStateException("Write-ahead log is closed"));
+        }
+        channel.close();
+    }
+
+    private void openTail() throws IOException {
+        List<Long> bases = listSegments();
+        if (bases.isEmpty()) {
+            startSegment(0L);
+            return;
+        }
+        long base = bases.get(bases.size() - 1);
+        Path file = segmentPath(base);
+        long end = scanSegment(file, base, Long.MAX_VALUE, null);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (end < SEGMENT_HEADER_SIZE) {
+            channel.truncate(0);
+            writeSegmentHeader();
+            end = SEGMENT_HEADER_SIZE;
+        } else {
+            channel.truncate(end);
+            channel.position(end);
+        }
+        position = base + end;
+    }
+
+    private void startSegment(long base) throws IOException {
+        channel = FileChannel.open(segmentPath(base), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeSegmentHeader();
+        position = base + SEGMENT_HEADER_SIZE;
+    }
+
+    private void writeSegmentHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(SEGMENT_MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    private void flushLoop() {
+        List<PendingAppend> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch, MAX_BATCH - 1);
+            running = writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private boolean writeBatch(List<PendingAppend> batch) {
+        boolean running = true;
+        List<PendingAppend> written = new ArrayList<>(batch.size());
+        for (PendingAppend append : batch) {
+            if (append == PendingAppend.SHUTDOWN) {
+                running = false;
+            } else if (append.frame == null) {
+                writeFrames(written);
+                written.clear();
+                rollSegment(append);
+            } else {
+                written.add(append);
+            }
+        }
+        writeFrames(written);
+        return running;
+    }
+
+    private void rollSegment(PendingAppend roll) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            channel.close();
+            startSegment(position);
+            roll.result.complete(position - SEGMENT_HEADER_SIZE);
+        } catch (IOException e) {
+            failure = e;
+            roll.result.completeExceptionally(e);
+        }
+    }
+
+    private void writeFrames(List<PendingAppend> written) {
+        if (written.isEmpty()) {
+            return;
+        }
+        List<ByteBuffer> frames = new ArrayList<>(written.size());
+        for (PendingAppend append : written) {
+            frames.add(append.frame);
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            long[] lsns = new long[written.size()];
+            long next = position;
+            for (int i = 0; i < written.size(); i++) {
+                lsns[i] = next;
+                next += written.get(i).frame.remaining();
+            }
+            ByteBuffer[] buffers = frames.toArray(new ByteBuffer[0]);
+            long remaining = next - position;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(false);
+            position = next;
+            for (int i = 0; i < written.size(); i++) {
+                written.get(i).result.complete(lsns[i]);
+            }
+        } catch (IOException e) {
+            failure = e;
+            for (PendingAppend append : written) {
+                append.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.matches("\\d{20}\\" + SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, 20)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static long scanSegment(Path file, long base, long fromLsn, RecordHandler handler) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+            if (!readFully(in, header, 0)) {
+                return 0;
+            }
+            if (header.getInt(0) != SEGMENT_MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported log segment: " + file);
+            }
+            long offset = SEGMENT_HEADER_SIZE;
+            ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+            CRC32C crc = new CRC32C();
+            while (true) {
+                frameHeader.clear();
+                if (!readFully(in, frameHeader, offset)) {
+                    return offset;
+                }
+                int length = frameHeader.getInt(0);
+                if (length < 0 || length > MAX_RECORD_SIZE) {
+                    return offset;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(in, payload, offset + FRAME_HEADER_SIZE)) {
+                    return offset;
+                }
+                payload.flip();
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != frameHeader.getInt(4)) {
+                    return offset;
+                }
+                long lsn = base + offset;
+                if (handler != null && lsn >= fromLsn) {
+                    handler.accept(lsn, payload);
+                }
+                offset += FRAME_HEADER_SIZE + length;
+            }
+        }
+    }
+
+    private static boolean readFully(FileChannel in, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, offset + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class PendingAppend {
+        static final PendingAppend SHUTDOWN = new PendingAppend(null);
+
+        final ByteBuffer frame;
+        final CompletableFuture<Long> result;
+
+        PendingAppend(ByteBuffer frame) {
+            this.frame = frame;
+            this.result = new CompletableFuture<>();
+        }
+    }
+}
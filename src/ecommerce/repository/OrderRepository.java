@@ -1,9 +1,18 @@
 package ecommerce.repository;
 
+import ecommerce.model.Money;
 import ecommerce.model.Order;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends Repository<Order> {
     List<Order> findByCustomerId(Long customerId);
+    List<Order> findByCustomerId(Long customerId, Long afterId, int limit);
+    Stream<Order> streamByCustomerId(Long customerId);
     List<Order> findByStatus(Order.OrderStatus status);
+    List<Order> findByStatus(Order.OrderStatus status, Long afterId, int limit);
+    Stream<Order> streamByStatus(Order.OrderStatus status);
+    long countByStatus(Order.OrderStatus status);
+    Money revenueByStatus(Order.OrderStatus status);
+    Money revenueByCustomer(Long customerId);
 }
@@ -0,0 +1,9 @@
+package ecommerce.repository;
+
+public class PersistenceException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public PersistenceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,9 +2,13 @@ package ecommerce.repository;
 
 import ecommerce.model.Product;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends Repository<Product> {
     List<Product> findByCategory(String category);
+    List<Product> findByCategory(String category, Long afterId, int limit);
     List<Product> findAvailableProducts();
+    List<Product> findAvailableProducts(Long afterId, int limit);
     List<Product> findByPriceRange(Double minPrice, Double maxPrice);
+    Stream<Product> streamByPriceRange(Double minPrice, Double maxPrice);
 }
@@ -1,14 +1,23 @@
 package ecommerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface Repository<T> {
     T save(T entity);
+    List<T> saveAll(Collection<T> entities);
     T update(T entity);
+    List<T> updateAll(Collection<T> entities);
     void delete(Long id);
+    void deleteAll(Collection<Long> ids);
     Optional<T> findById(Long id);
+    T findByIdOrNull(long id);
     List<T> findAll();
+    List<T> findAll(Long afterId, int limit);
+    Stream<T> stream();
     boolean existsById(Long id);
+    boolean existsById(long id);
     long count();
 }
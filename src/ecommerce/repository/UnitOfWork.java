@@ -0,0 +1,11 @@
+package ecommerce.repository;
+
+import ecommerce.model.Identifiable;
+
+public interface UnitOfWork {
+    <T extends Identifiable> UnitOfWork save(Repository<T> repository, T entity);
+    <T extends Identifiable> UnitOfWork update(Repository<T> repository, T entity);
+    <T extends Identifiable> UnitOfWork delete(Repository<T> repository, Long id);
+    <T extends Identifiable> UnitOfWork adjust(Repository<T> repository, Long id, long version, int delta);
+    void commit();
+}
@@ -0,0 +1,389 @@
+package ecommerce.repository.impl;
+
+import ecommerce.model.Identifiable;
+import ecommerce.persistence.Journal;
+import ecommerce.persistence.Journaled;
+import ecommerce.repository.PersistenceException;
+import ecommerce.repository.Repository;
+import ecommerce.util.StripedLock;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public abstract class AbstractRepository<T extends Identifiable> implements Repository<T>, Journaled<T> {
+    private static final int LOCK_STRIPES = 64;
+    private static final AtomicLong LOCK_ORDER = new AtomicLong();
+
+    protected final ConcurrentLongObjectMap<T> database;
+    private final ConcurrentLongSortedSet ids;
+    private final AtomicLong nextId;
+    private final StripedLock locks;
+    private final String entityName;
+    private final long lockOrder;
+    private volatile Journal<T> journal;
+
+    protected AbstractRepository(String entityName) {
+        this.database = new ConcurrentLongObjectMap<>();
+        this.ids = new ConcurrentLongSortedSet();
+        this.nextId = new AtomicLong(1L);
+        this.locks = new StripedLock(LOCK_STRIPES);
+        this.entityName = entityName;
+        this.lockOrder = LOCK_ORDER.getAndIncrement();
+    }
+
+    @Override
+    public T save(T entity) {
+        saveAll(Collections.singletonList(entity));
+        return entity;
+    }
+
+    @Override
+    public List<T> saveAll(Collection<T> entities) {
+        List<T> batch = new ArrayList<>(entities);
+        List<Long> batchIds = assignIds(batch);
+        List<ReentrantLock> held = locks.forKeys(batchIds);
+        CompletableFuture<Long> commit;
+        StripedLock.lockAll(held);
+        try {
+            checkWritable();
+            validate(batchIds, batch);
+            applyPuts(batchIds, batch);
+            commit = log(batch, Collections.emptyList());
+        } finally {
+            StripedLock.unlockAll(held);
+        }
+        awaitDurable(commit);
+        return batch;
+    }
+
+    @Override
+    public T update(T entity) {
+        updateAll(Collections.singletonList(entity));
+        return entity;
+    }
+
+    @Override
+    public List<T> updateAll(Collection<T> entities) {
+        List<T> batch = new ArrayList<>(entities);
+        List<Long> batchIds = existingIds(batch);
+        List<ReentrantLock> held = locks.forKeys(batchIds);
+        CompletableFuture<Long> commit;
+        StripedLock.lockAll(held);
+        try {
+            checkWritable();
+            checkExists(batchIds);
+            validate(batchIds, batch);
+            applyPuts(batchIds, batch);
+            commit = log(batch, Collections.emptyList());
+        } finally {
+            StripedLock.unlockAll(held);
+        }
+        awaitDurable(commit);
+        return batch;
+    }
+
+    @Override
+    public void delete(Long id) {
+        deleteAll(Collections.singletonList(id));
+    }
+
+    @Override
+    public void deleteAll(Collection<Long> entityIds) {
+        Set<Long> batchIds = new LinkedHashSet<>(entityIds);
+        if (batchIds.contains(null)) {
+            throw notFound(null);
+        }
+        List<ReentrantLock> held = locks.forKeys(batchIds);
+        CompletableFuture<Long> commit;
+        StripedLock.lockAll(held);
+        try {
+            checkWritable();
+            checkExists(batchIds);
+            applyDeletes(batchIds);
+            commit = log(Collections.emptyList(), batchIds);
+        } finally {
+            StripedLock.unlockAll(held);
+        }
+        awaitDurable(commit);
+    }
+
+    @Override
+    public void attachJournal(Journal<T> journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void replayPut(T entity) {
+        Long id = entity.getId();
+        nextId.accumulateAndGet(id + 1, Math::max);
+        ReentrantLock lock = locks.forKey(id);
+        lock.lock();
+        try {
+            restoreIndex(id, entity);
+            database.put(id, entity);
+            ids.add(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void replayAdjust(Long id, long version, int delta) {
+        throw new UnsupportedOperationException(entityName + " records cannot be adjusted");
+    }
+
+    @Override
+    public long getNextId() {
+        return nextId.get();
+    }
+
+    @Override
+    public void restoreNextId(long id) {
+        nextId.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public void replayDelete(Long id) {
+        ReentrantLock lock = locks.forKey(id);
+        lock.lock();
+        try {
+            if (database.remove(id) != null) {
+                ids.remove(id);
+                unindex(id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void visitEntities(Consumer<T> visitor) {
+        for (PrimitiveIterator.OfLong it = ids.iterator(); it.hasNext(); ) {
+            long id = it.nextLong();
+            ReentrantLock lock = locks.forKey(id);
+            lock.lock();
+            try {
+                T entity = database.get(id);
+                if (entity != null) {
+                    visitor.accept(entity);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(database.get(id));
+    }
+
+    @Override
+    public T findByIdOrNull(long id) {
+        return database.get(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        List<T> result = new ArrayList<>();
+        for (PrimitiveIterator.OfLong it = ids.iterator(); it.hasNext(); ) {
+            T entity = database.get(it.nextLong());
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<T> findAll(Long afterId, int limit) {
+        return findPage(afterId == null ? ids.iterator() : ids.iteratorAfter(afterId), limit, e -> true);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return ids.stream().mapToObj(database::get).filter(Objects::nonNull);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return id != null && database.containsKey(id);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return database.containsKey(id);
+    }
+
+    @Override
+    public long count() {
+        return database.size();
+    }
+
+    protected List<T> findAllById(Collection<Long> candidates, Predicate<T> filter) {
+        List<T> result = new ArrayList<>();
+        for (Long id : candidates) {
+            T entity = database.get(id);
+            if (entity != null && filter.test(entity)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    protected List<T> findPage(NavigableSet<Long> candidates, Long afterId, int limit, Predicate<T> filter) {
+        NavigableSet<Long> remaining = afterId == null ? candidates : candidates.tailSet(afterId, false);
+        return findPage(remaining.iterator(), limit, filter);
+    }
+
+    private List<T> findPage(Iterator<Long> remaining, int limit, Predicate<T> filter) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be greater than zero");
+        }
+        List<T> page = new ArrayList<>(Math.min(limit, 64));
+        while (remaining.hasNext()) {
+            T entity = database.get(remaining.next());
+            if (entity != null && filter.test(entity)) {
+                page.add(entity);
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    protected Stream<T> streamById(Collection<Long> candidates, Predicate<T> filter) {
+        return streamById(candidates.stream(), filter);
+    }
+
+    protected Stream<T> streamById(Stream<Long> candidates, Predicate<T> filter) {
+        return candidates.map(database::get).filter(e -> e != null && filter.test(e));
+    }
+
+    protected void validate(List<Long> batchIds, List<T> batch) {
+    }
+
+    protected void abandon(List<Long> batchIds, List<T> batch) {
+    }
+
+    protected void index(Long id, T entity) {
+    }
+
+    protected void restoreIndex(Long id, T entity) {
+        index(id, entity);
+    }
+
+    protected void unindex(Long id) {
+    }
+
+    long lockOrder() {
+        return lockOrder;
+    }
+
+    void checkWritable() {
+        Journal<T> current = journal;
+        if (current != null && !current.isWritable()) {
+            throw new IllegalStateException(entityName + " store is not writable after a persistence failure");
+        }
+    }
+
+    List<ReentrantLock> locksFor(Collection<Long> entityIds) {
+        return locks.forKeys(entityIds);
+    }
+
+    Journal<T> journal() {
+        return journal;
+    }
+
+    List<Long> existingIds(List<T> batch) {
+        List<Long> batchIds = new ArrayList<>(batch.size());
+        for (T entity : batch) {
+            if (entity.getId() == null) {
+                throw notFound(null);
+            }
+            batchIds.add(entity.getId());
+        }
+        return batchIds;
+    }
+
+    void checkExists(Collection<Long> entityIds) {
+        for (Long id : entityIds) {
+            if (!database.containsKey(id)) {
+                throw notFound(id);
+            }
+        }
+    }
+
+    void applyPuts(List<Long> batchIds, List<T> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Long id = batchIds.get(i);
+            T entity = batch.get(i);
+            index(id, entity);
+            entity.setId(id);
+            database.put(id, entity);
+            ids.add(id);
+        }
+    }
+
+    void applyDeletes(Collection<Long> entityIds) {
+        for (Long id : entityIds) {
+            database.remove(id);
+            ids.remove(id);
+            unindex(id);
+        }
+    }
+
+    private CompletableFuture<Long> log(List<T> puts, Collection<Long> deletes) {
+        Journal<T> current = journal;
+        if (current == null) {
+            return null;
+        }
+        try {
+            return current.logWrites(puts, deletes);
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Failed to persist " + entityName + " changes", e);
+        }
+    }
+
+    private void awaitDurable(CompletableFuture<Long> commit) {
+        if (commit == null) {
+            return;
+        }
+        try {
+            commit.join();
+        } catch (CompletionException e) {
+            throw new PersistenceException("Failed to persist " + entityName + " changes", e.getCause());
+        }
+    }
+
+    List<Long> assignIds(List<T> batch) {
+        int unassigned = 0;
+        long maxAssigned = 0;
+        for (T entity : batch) {
+            if (entity.getId() == null) {
+                unassigned++;
+            } else {
+                maxAssigned = Math.max(maxAssigned, entity.getId());
+            }
+        }
+        long next = unassigned == 0 ? 0 : nextId.getAndAdd(unassigned);
+        if (maxAssigned > 0) {
+            nextId.accumulateAndGet(maxAssigned + 1, Math::max);
+        }
+        List<Long> batchIds = new ArrayList<>(batch.size());
+        for (T entity : batch) {
+            batchIds.add(entity.getId() != null ? entity.getId() : next++);
+        }
+        return batchIds;
+    }
+
+    protected IllegalArgumentException notFound(Long id) {
+        return new IllegalArgumentException(entityName + " not found with ID: " + id);
+    }
+}
@@ -0,0 +1,204 @@
+package ecommerce.repository.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+final class ConcurrentLongObjectMap<V> {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int SEGMENT_BITS = 4;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ConcurrentLongObjectMap() {
+        this.segments = new Segment[1 << SEGMENT_BITS];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    V get(long key) {
+        long hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        V value = segment.find(key, hash);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = segment.find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    V put(long key, V value) {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        long hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.put(key, hash, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    V remove(long key) {
+        long hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.remove(key, hash);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+    }
+
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+    }
+
+    private static final class Segment<V> {
+        final StampedLock lock = new StampedLock();
+        volatile Table table = new Table(INITIAL_CAPACITY);
+        volatile int size;
+
+        @SuppressWarnings("unchecked")
+        V find(long key, long hash) {
+            Table current = table;
+            long[] keys = current.keys;
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                long candidate = keys[index];
+                if (candidate == key) {
+                    return (V) current.values[index];
+                }
+                if (candidate == EMPTY) {
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(long key, long hash, V value) {
+            Table current = table;
+            long[] keys = current.keys;
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            while (keys[index] != EMPTY) {
+                if (keys[index] == key) {
+                    V previous = (V) current.values[index];
+                    current.values[index] = value;
+                    return previous;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            current.values[index] = value;
+            size = size + 1;
+            if (size > keys.length * LOAD_FACTOR) {
+                resize(current);
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long key, long hash) {
+            Table current = table;
+            long[] keys = current.keys;
+            Object[] values = current.values;
+            int mask = keys.length - 1;
+            int index = (int) hash & mask;
+            while (keys[index] != key) {
+                if (keys[index] == EMPTY) {
+                    return null;
+                }
+                index = (index + 1) & mask;
+            }
+            V previous = (V) values[index];
+            int gap = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                if (keys[next] == EMPTY) {
+                    break;
+                }
+                int home = (int) hash(keys[next]) & mask;
+                boolean movable = gap <= next
+                        ? home <= gap || home > next
+                        : home <= gap && home > next;
+                if (movable) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            values[gap] = null;
+            size = size - 1;
+            return previous;
+        }
+
+        private void resize(Table current) {
+            Table resized = new Table(current.keys.length << 1);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < current.keys.length; i++) {
+                long key = current.keys[i];
+                if (key != EMPTY) {
+                    int index = (int) hash(key) & mask;
+                    while (resized.keys[index] != EMPTY) {
+                        index = (index + 1) & mask;
+                    }
+                    resized.keys[index] = key;
+                    resized.values[index] = current.values[i];
+                }
+            }
+            table = resized;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ecommerce.repository.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+final class ConcurrentLongSortedSet {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int WORDS = (1 << CHUNK_BITS) / Long.SIZE;
+
+    private final ConcurrentSkipListMap<Long, Chunk> chunks = new ConcurrentSkipListMap<>();
+
+    void add(long value) {
+        Long key = value >> CHUNK_BITS;
+        int bit = (int) (value & CHUNK_MASK);
+        while (true) {
+            Chunk chunk = chunks.computeIfAbsent(key, k -> new Chunk());
+            synchronized (chunk) {
+                if (!chunk.retired) {
+                    chunk.set(bit);
+                    return;
+                }
+            }
+        }
+    }
+
+    void remove(long value) {
+        Long key = value >> CHUNK_BITS;
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            return;
+        }
+        synchronized (chunk) {
+            if (!chunk.retired && chunk.clear((int) (value & CHUNK_MASK)) && chunk.count == 0) {
+                chunk.retired = true;
+                chunks.remove(key, chunk);
+            }
+        }
+    }
+
+    PrimitiveIterator.OfLong iterator() {
+        return new Cursor(Long.MIN_VALUE);
+    }
+
+    PrimitiveIterator.OfLong iteratorAfter(long after) {
+        return after == Long.MAX_VALUE ? LongStream.empty().iterator() : new Cursor(after + 1);
+    }
+
+    LongStream stream() {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    private static final class Chunk {
+        final AtomicLongArray words = new AtomicLongArray(WORDS);
+        int count;
+        boolean retired;
+
+        void set(int bit) {
+            long word = words.get(bit >>> 6);
+            long mask = 1L << bit;
+            if ((word & mask) == 0) {
+                words.set(bit >>> 6, word | mask);
+                count++;
+            }
+        }
+
+        boolean clear(int bit) {
+            long word = words.get(bit >>> 6);
+            long mask = 1L << bit;
+            if ((word & mask) == 0) {
+                return false;
+            }
+            words.set(bit >>> 6, word & ~mask);
+            count--;
+            return true;
+        }
+
+        int nextSetBit(int from) {
+            int index = from >>> 6;
+            if (index >= WORDS) {
+                return -1;
+            }
+            long word = words.get(index) & (-1L << from);
+            while (word == 0) {
+                if (++index == WORDS) {
+                    return -1;
+                }
+                word = words.get(index);
+            }
+            return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+        }
+    }
+
+    private final class Cursor implements PrimitiveIterator.OfLong {
+        private final Iterator<Map.Entry<Long, Chunk>> entries;
+        private final long from;
+        private Chunk chunk;
+        private long base;
+        private int bit;
+        private boolean ready;
+        private long next;
+
+        Cursor(long from) {
+            this.from = from;
+            this.entries = chunks.tailMap(from >> CHUNK_BITS, true).entrySet().iterator();
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return ready;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!ready) {
+                throw new NoSuchElementException();
+            }
+            long value = next;
+            advance();
+            return value;
+        }
+
+        private void advance() {
+            while (true) {
+                if (chunk != null) {
+                    int found = chunk.nextSetBit(bit);
+                    if (found >= 0) {
+                        next = base + found;
+                        bit = found + 1;
+                        ready = true;
+                        return;
+                    }
+                    chunk = null;
+                }
+                if (!entries.hasNext()) {
+                    ready = false;
+                    return;
+                }
+                Map.Entry<Long, Chunk> entry = entries.next();
+                chunk = entry.getValue();
+                base = entry.getKey() << CHUNK_BITS;
+                bit = base < from ? (int) (from - base) : 0;
+            }
+        }
+    }
+}
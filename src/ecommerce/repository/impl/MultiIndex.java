@@ -0,0 +1,54 @@
+package ecommerce.repository.impl;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+class MultiIndex<K> {
+    protected final ConcurrentMap<K, NavigableSet<Long>> buckets;
+    private final ConcurrentMap<Long, K> keys;
+
+    MultiIndex() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    protected MultiIndex(ConcurrentMap<K, NavigableSet<Long>> buckets) {
+        this.buckets = buckets;
+        this.keys = new ConcurrentHashMap<>();
+    }
+
+    void put(Long id, K key) {
+        K previous = key == null ? keys.remove(id) : keys.put(id, key);
+        if (Objects.equals(previous, key)) {
+            return;
+        }
+        if (key != null) {
+            buckets.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        if (previous != null) {
+            removeFromBucket(previous, id);
+        }
+    }
+
+    void remove(Long id) {
+        K key = keys.remove(id);
+        if (key != null) {
+            removeFromBucket(key, id);
+        }
+    }
+
+    NavigableSet<Long> get(K key) {
+        NavigableSet<Long> bucket = key == null ? null : buckets.get(key);
+        return bucket == null ? Collections.emptyNavigableSet() : bucket;
+    }
+
+    private void removeFromBucket(K key, Long id) {
+        NavigableSet<Long> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+        }
+    }
+}
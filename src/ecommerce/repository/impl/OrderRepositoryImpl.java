@@ -1,76 +1,125 @@
 package ecommerce.repository.impl;
 
+import ecommerce.model.Money;
 import ecommerce.model.Order;
 import ecommerce.repository.OrderRepository;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
-public class OrderRepositoryImpl implements OrderRepository {
-    private final Map<Long, Order> database;
-    private Long nextId;
+public class OrderRepositoryImpl extends AbstractRepository<Order> implements OrderRepository {
+    private final MultiIndex<Long> customerIndex;
+    private final MultiIndex<Order.OrderStatus> statusIndex;
+    private final ConcurrentLongObjectMap<OrderFacts> indexedFacts;
+    private final Map<Order.OrderStatus, LongAdder> countByStatus;
+    private final Map<Order.OrderStatus, LongAdder> revenueByStatus;
+    private final ConcurrentMap<Long, LongAdder> revenueByCustomer;
 
     public OrderRepositoryImpl() {
-        this.database = new HashMap<>();
-        this.nextId = 1L;
+        super("Order");
+        this.customerIndex = new MultiIndex<>();
+        this.statusIndex = new MultiIndex<>();
+        this.indexedFacts = new ConcurrentLongObjectMap<>();
+        this.countByStatus = new EnumMap<>(Order.OrderStatus.class);
+        this.revenueByStatus = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            countByStatus.put(status, new LongAdder());
+            revenueByStatus.put(status, new LongAdder());
+        }
+        this.revenueByCustomer = new ConcurrentHashMap<>();
     }
 
     @Override
-    public Order save(Order entity) {
-        if (entity.getId() == null) {
-            entity.setId(nextId++);
-        }
-        database.put(entity.getId(), entity);
-        return entity;
+    public List<Order> findByCustomerId(Long customerId) {
+        return findAllById(customerIndex.get(customerId),
+                o -> o.getCustomer().getId().equals(customerId));
     }
 
     @Override
-    public Order update(Order entity) {
-        if (entity.getId() == null || !database.containsKey(entity.getId())) {
-            throw new IllegalArgumentException("Order not found with ID: " + entity.getId());
-        }
-        database.put(entity.getId(), entity);
-        return entity;
+    public List<Order> findByCustomerId(Long customerId, Long afterId, int limit) {
+        return findPage(customerIndex.get(customerId), afterId, limit,
+                o -> o.getCustomer().getId().equals(customerId));
     }
 
     @Override
-    public void delete(Long id) {
-        if (!database.containsKey(id)) {
-            throw new IllegalArgumentException("Order not found with ID: " + id);
-        }
-        database.remove(id);
+    public Stream<Order> streamByCustomerId(Long customerId) {
+        return streamById(customerIndex.get(customerId), o -> o.getCustomer().getId().equals(customerId));
+    }
+
+    @Override
+    public List<Order> findByStatus(Order.OrderStatus status) {
+        return findAllById(statusIndex.get(status), o -> o.getStatus() == status);
     }
 
     @Override
-    public Optional<Order> findById(Long id) {
-        return Optional.ofNullable(database.get(id));
+    public List<Order> findByStatus(Order.OrderStatus status, Long afterId, int limit) {
+        return findPage(statusIndex.get(status), afterId, limit, o -> o.getStatus() == status);
     }
 
     @Override
-    public List<Order> findAll() {
-        return new ArrayList<>(database.values());
+    public Stream<Order> streamByStatus(Order.OrderStatus status) {
+        return streamById(statusIndex.get(status), o -> o.getStatus() == status);
     }
 
     @Override
-    public boolean existsById(Long id) {
-        return database.containsKey(id);
+    public long countByStatus(Order.OrderStatus status) {
+        return countByStatus.get(status).sum();
     }
 
     @Override
-    public long count() {
-        return database.size();
+    public Money revenueByStatus(Order.OrderStatus status) {
+        return Money.ofCents(revenueByStatus.get(status).sum());
     }
 
     @Override
-    public List<Order> findByCustomerId(Long customerId) {
-        return database.values().stream()
-                .filter(o -> o.getCustomer().getId().equals(customerId))
-                .collect(Collectors.toList());
+    public Money revenueByCustomer(Long customerId) {
+        LongAdder revenue = customerId == null ? null : revenueByCustomer.get(customerId);
+        return revenue == null ? Money.ZERO : Money.ofCents(revenue.sum());
     }
 
     @Override
-    public List<Order> findByStatus(Order.OrderStatus status) {
-        return database.values().stream()
-                .filter(o -> o.getStatus() == status)
-                .collect(Collectors.toList());
+    protected void index(Long id, Order entity) {
+        Long customerId = entity.getCustomer() == null ? null : entity.getCustomer().getId();
+        customerIndex.put(id, customerId);
+        statusIndex.put(id, entity.getStatus());
+        OrderFacts facts = new OrderFacts(entity.getStatus(), customerId, entity.getTotalCents());
+        OrderFacts previous = indexedFacts.put(id, facts);
+        if (previous != null) {
+            aggregate(previous, -1);
+        }
+        aggregate(facts, 1);
+    }
+
+    @Override
+    protected void unindex(Long id) {
+        customerIndex.remove(id);
+        statusIndex.remove(id);
+        OrderFacts previous = indexedFacts.remove(id);
+        if (previous != null) {
+            aggregate(previous, -1);
+        }
+    }
+
+    private void aggregate(OrderFacts facts, int sign) {
+        countByStatus.get(facts.status).add(sign);
+        revenueByStatus.get(facts.status).add(sign * facts.totalCents);
+        if (facts.status == Order.OrderStatus.DELIVERED && facts.customerId != null) {
+            revenueByCustomer.computeIfAbsent(facts.customerId, key -> new LongAdder())
+                    .add(sign * facts.totalCents);
+        }
+    }
+
+    private static final class OrderFacts {
+        final Order.OrderStatus status;
+        final Long customerId;
+        final long totalCents;
+
+        OrderFacts(Order.OrderStatus status, Long customerId, long totalCents) {
+            this.status = status;
+            this.customerId = customerId;
+            this.totalCents = totalCents;
+        }
     }
 }
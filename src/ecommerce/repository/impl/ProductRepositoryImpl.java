@@ -1,85 +1,138 @@
 package ecommerce.repository.impl;
 
+import ecommerce.model.Money;
+import ecommerce.model.PhysicalProduct;
 import ecommerce.model.Product;
+import ecommerce.persistence.Journal;
 import ecommerce.repository.ProductRepository;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class ProductRepositoryImpl implements ProductRepository {
-    private final Map<Long, Product> database;
-    private Long nextId;
+public class ProductRepositoryImpl extends AbstractRepository<Product> implements ProductRepository {
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+    private final MultiIndex<String> categoryIndex;
+    private final NavigableSet<Long> availableIds;
+    private final SortedIndex<Long> priceIndex;
+    private final Map<Long, Map<Long, Integer>> pendingAdjustments;
 
     public ProductRepositoryImpl() {
-        this.database = new HashMap<>();
-        this.nextId = 1L;
+        super("Product");
+        this.categoryIndex = new MultiIndex<>();
+        this.availableIds = new ConcurrentSkipListSet<>();
+        this.priceIndex = new SortedIndex<>();
+        this.pendingAdjustments = new HashMap<>();
     }
 
     @Override
-    public Product save(Product entity) {
-        if (entity.getId() == null) {
-            entity.setId(nextId++);
-        }
-        database.put(entity.getId(), entity);
-        return entity;
+    public List<Product> findByCategory(String category) {
+        return findAllById(categoryIndex.get(normalizeCategory(category)),
+                p -> p.getCategory().equalsIgnoreCase(category));
     }
 
     @Override
-    public Product update(Product entity) {
-        if (entity.getId() == null || !database.containsKey(entity.getId())) {
-            throw new IllegalArgumentException("Product not found with ID: " + entity.getId());
-        }
-        database.put(entity.getId(), entity);
-        return entity;
+    public List<Product> findByCategory(String category, Long afterId, int limit) {
+        return findPage(categoryIndex.get(normalizeCategory(category)), afterId, limit,
+                p -> p.getCategory().equalsIgnoreCase(category));
     }
 
     @Override
-    public void delete(Long id) {
-        if (!database.containsKey(id)) {
-            throw new IllegalArgumentException("Product not found with ID: " + id);
-        }
-        database.remove(id);
+    public List<Product> findAvailableProducts() {
+        return findAllById(availableIds, Product::isAvailable);
     }
 
     @Override
-    public Optional<Product> findById(Long id) {
-        return Optional.ofNullable(database.get(id));
+    public List<Product> findAvailableProducts(Long afterId, int limit) {
+        return findPage(availableIds, afterId, limit, Product::isAvailable);
     }
 
     @Override
-    public List<Product> findAll() {
-        return new ArrayList<>(database.values());
+    public List<Product> findByPriceRange(Double minPrice, Double maxPrice) {
+        return streamByPriceRange(minPrice, maxPrice).collect(Collectors.toList());
     }
 
     @Override
-    public boolean existsById(Long id) {
-        return database.containsKey(id);
+    public Stream<Product> streamByPriceRange(Double minPrice, Double maxPrice) {
+        long min = priceBound(minPrice, RoundingMode.CEILING);
+        long max = priceBound(maxPrice, RoundingMode.FLOOR);
+        return streamById(priceIndex.range(min, max),
+                p -> p.getPrice().getCents() >= min && p.getPrice().getCents() <= max);
+    }
+
+    private static long priceBound(double bound, RoundingMode rounding) {
+        if (Double.isNaN(bound)) {
+            throw new IllegalArgumentException("Price bound must be a number");
+        }
+        if (Double.isInfinite(bound)) {
+            return bound > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        BigDecimal amount = BigDecimal.valueOf(bound).max(MIN_PRICE).min(MAX_PRICE);
+        return Money.of(amount, rounding).getCents();
     }
 
     @Override
-    public long count() {
-        return database.size();
+    public void attachJournal(Journal<Product> journal) {
+        pendingAdjustments.clear();
+        super.attachJournal(journal);
     }
 
     @Override
-    public List<Product> findByCategory(String category) {
-        return database.values().stream()
-                .filter(p -> p.getCategory().equalsIgnoreCase(category))
-                .collect(Collectors.toList());
+    public void replayPut(Product entity) {
+        super.replayPut(entity);
+        Map<Long, Integer> pending = pendingAdjustments.get(entity.getId());
+        if (pending != null && entity instanceof PhysicalProduct) {
+            PhysicalProduct physicalProduct = (PhysicalProduct) entity;
+            long epoch = physicalProduct.getStockEpoch();
+            Integer delta = pending.get(epoch);
+            if (delta != null) {
+                physicalProduct.addStock(delta);
+            }
+            pending.keySet().removeIf(version -> version <= epoch);
+            if (pending.isEmpty()) {
+                pendingAdjustments.remove(entity.getId());
+            }
+        }
     }
 
     @Override
-    public List<Product> findAvailableProducts() {
-        return database.values().stream()
-                .filter(Product::isAvailable)
-                .collect(Collectors.toList());
+    public void replayAdjust(Long id, long version, int delta) {
+        Product product = findByIdOrNull(id);
+        if (!(product instanceof PhysicalProduct)) {
+            return;
+        }
+        PhysicalProduct physicalProduct = (PhysicalProduct) product;
+        long epoch = physicalProduct.getStockEpoch();
+        if (version == epoch) {
+            physicalProduct.addStock(delta);
+        } else if (version > epoch) {
+            pendingAdjustments.computeIfAbsent(id, key -> new HashMap<>()).merge(version, delta, Integer::sum);
+        }
     }
 
     @Override
-    public List<Product> findByPriceRange(Double minPrice, Double maxPrice) {
-        return database.values().stream()
-                .filter(p -> p.getPrice().compareTo(BigDecimal.valueOf(minPrice)) >= 0 &&
-                           p.getPrice().compareTo(BigDecimal.valueOf(maxPrice)) <= 0)
-                .collect(Collectors.toList());
+    protected void index(Long id, Product entity) {
+        categoryIndex.put(id, normalizeCategory(entity.getCategory()));
+        if (entity.isAvailable()) {
+            availableIds.add(id);
+        } else {
+            availableIds.remove(id);
+        }
+        priceIndex.put(id, entity.getPrice() == null ? null : entity.getPrice().getCents());
+    }
+
+    @Override
+    protected void unindex(Long id) {
+        categoryIndex.remove(id);
+        availableIds.remove(id);
+        priceIndex.remove(id);
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null ? null : category.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,211 @@
+package ecommerce.repository.impl;
+
+import ecommerce.model.Identifiable;
+import ecommerce.persistence.Journal;
+import ecommerce.persistence.JournalRecord;
+import ecommerce.repository.PersistenceException;
+import ecommerce.repository.Repository;
+import ecommerce.repository.UnitOfWork;
+import ecommerce.util.StripedLock;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RepositoryUnitOfWork implements UnitOfWork {
+    private final Map<AbstractRepository<?>, StagedWrites<?>> staged;
+    private boolean committed;
+
+    public RepositoryUnitOfWork() {
+        this.staged = new LinkedHashMap<>();
+    }
+
+    @Override
+    public <T extends Identifiable> UnitOfWork save(Repository<T> repository, T entity) {
+        stage(repository).saves.add(entity);
+        return this;
+    }
+
+    @Override
+    public <T extends Identifiable> UnitOfWork update(Repository<T> repository, T entity) {
+        StagedWrites<T> writes = stage(repository);
+        if (entity.getId() == null) {
+            throw writes.repository.notFound(null);
+        }
+        writes.updates.put(entity.getId(), entity);
+        return this;
+    }
+
+    @Override
+    public <T extends Identifiable> UnitOfWork delete(Repository<T> repository, Long id) {
+        StagedWrites<T> writes = stage(repository);
+        if (id == null) {
+            throw writes.repository.notFound(null);
+        }
+        writes.deletes.add(id);
+        return this;
+    }
+
+    @Override
+    public <T extends Identifiable> UnitOfWork adjust(Repository<T> repository, Long id, long version, int delta) {
+        StagedWrites<T> writes = stage(repository);
+        if (id == null) {
+            throw writes.repository.notFound(null);
+        }
+        writes.adjustments.add(new Adjustment(id, version, delta));
+        return this;
+    }
+
+    @Override
+    public void commit() {
+        if (committed) {
+            throw new IllegalStateException("Unit of work already committed");
+        }
+        committed = true;
+        List<StagedWrites<?>> groups = new ArrayList<>(staged.values());
+        groups.sort(Comparator.comparingLong(writes -> writes.repository.lockOrder()));
+
+        List<ReentrantLock> held = new ArrayList<>();
+        for (StagedWrites<?> writes : groups) {
+            writes.assignIds();
+            held.addAll(writes.locks());
+        }
+        CompletableFuture<Long> commit;
+        StripedLock.lockAll(held);
+        try {
+            for (StagedWrites<?> writes : groups) {
+                writes.repository.checkWritable();
+            }
+            int validated = 0;
+            try {
+                for (StagedWrites<?> writes : groups) {
+                    writes.validate();
+                    validated++;
+                }
+            } catch (RuntimeException e) {
+                for (int i = 0; i < validated; i++) {
+                    groups.get(i).abandon();
+                }
+                throw e;
+            }
+            for (StagedWrites<?> writes : groups) {
+                writes.apply();
+            }
+            commit = log(groups);
+        } finally {
+            StripedLock.unlockAll(held);
+        }
+        awaitDurable(commit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Identifiable> StagedWrites<T> stage(Repository<T> repository) {
+        if (committed) {
+            throw new IllegalStateException("Unit of work already committed");
+        }
+        if (!(repository instanceof AbstractRepository)) {
+            throw new IllegalArgumentException("Unsupported repository: " + repository.getClass().getSimpleName());
+        }
+        AbstractRepository<T> target = (AbstractRepository<T>) repository;
+        return (StagedWrites<T>) staged.computeIfAbsent(target, key -> new StagedWrites<>(target));
+    }
+
+    private static CompletableFuture<Long> log(List<StagedWrites<?>> groups) {
+        JournalRecord record = null;
+        for (StagedWrites<?> writes : groups) {
+            record = writes.log(record);
+        }
+        if (record == null || record.isEmpty()) {
+            return null;
+        }
+        try {
+            return record.append();
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Failed to persist unit of work", e);
+        }
+    }
+
+    private static void awaitDurable(CompletableFuture<Long> commit) {
+        if (commit == null) {
+            return;
+        }
+        try {
+            commit.join();
+        } catch (CompletionException e) {
+            throw new PersistenceException("Failed to persist unit of work", e.getCause());
+        }
+    }
+
+    private static final class StagedWrites<T extends Identifiable> {
+        final AbstractRepository<T> repository;
+        final List<T> saves;
+        final Map<Long, T> updates;
+        final Set<Long> deletes;
+        final List<Adjustment> adjustments;
+        List<Long> saveIds;
+        List<Long> putIds;
+        List<T> puts;
+
+        StagedWrites(AbstractRepository<T> repository) {
+            this.repository = repository;
+            this.saves = new ArrayList<>();
+            this.updates = new LinkedHashMap<>();
+            this.deletes = new LinkedHashSet<>();
+            this.adjustments = new ArrayList<>();
+        }
+
+        void assignIds() {
+            saveIds = repository.assignIds(saves);
+            putIds = new ArrayList<>(saveIds);
+            putIds.addAll(updates.keySet());
+            puts = new ArrayList<>(saves);
+            puts.addAll(updates.values());
+        }
+
+        List<ReentrantLock> locks() {
+            Set<Long> touched = new HashSet<>(putIds);
+            touched.addAll(deletes);
+            return repository.locksFor(touched);
+        }
+
+        void validate() {
+            repository.checkExists(updates.keySet());
+            repository.checkExists(deletes);
+            repository.validate(putIds, puts);
+        }
+
+        void abandon() {
+            repository.abandon(putIds, puts);
+        }
+
+        void apply() {
+            repository.applyPuts(putIds, puts);
+            repository.applyDeletes(deletes);
+        }
+
+        JournalRecord log(JournalRecord record) {
+            Journal<T> journal = repository.journal();
+            if (journal == null) {
+                return record;
+            }
+            JournalRecord target = record == null ? journal.newRecord() : record;
+            journal.addWrites(target, puts, deletes);
+            for (Adjustment adjustment : adjustments) {
+                journal.addAdjustment(target, adjustment.id, adjustment.version, adjustment.delta);
+            }
+            return target;
+        }
+    }
+
+    private static final class Adjustment {
+        final Long id;
+        final long version;
+        final int delta;
+
+        Adjustment(Long id, long version, int delta) {
+            this.id = id;
+            this.version = version;
+            this.delta = delta;
+        }
+    }
+}
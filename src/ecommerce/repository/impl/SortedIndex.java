@@ -0,0 +1,27 @@
+package ecommerce.repository.impl;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+final class SortedIndex<K extends Comparable<K>> extends MultiIndex<K> {
+    private final ConcurrentNavigableMap<K, NavigableSet<Long>> sortedBuckets;
+
+    SortedIndex() {
+        this(new ConcurrentSkipListMap<>());
+    }
+
+    private SortedIndex(ConcurrentNavigableMap<K, NavigableSet<Long>> sortedBuckets) {
+        super(sortedBuckets);
+        this.sortedBuckets = sortedBuckets;
+    }
+
+    Stream<Long> range(K from, K to) {
+        if (from.compareTo(to) > 0) {
+            return Stream.empty();
+        }
+        return sortedBuckets.subMap(from, true, to, true).values().stream()
+                .flatMap(NavigableSet::stream);
+    }
+}
@@ -0,0 +1,66 @@
+package ecommerce.repository.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+final class UniqueIndex<K> {
+    private final ConcurrentMap<K, Long> ids = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, K> keys = new ConcurrentHashMap<>();
+
+    boolean put(Long id, K key) {
+        K previous = keys.get(id);
+        if (Objects.equals(previous, key)) {
+            return true;
+        }
+        if (key != null) {
+            Long owner = ids.putIfAbsent(key, id);
+            if (owner != null && !owner.equals(id)) {
+                return false;
+            }
+            keys.put(id, key);
+        } else {
+            keys.remove(id);
+        }
+        if (previous != null) {
+            ids.remove(previous, id);
+        }
+        return true;
+    }
+
+    boolean reserve(Long id, K key) {
+        Long owner = ids.putIfAbsent(key, id);
+        return owner == null || owner.equals(id);
+    }
+
+    void release(Long id, K key) {
+        if (key != null && !key.equals(keys.get(id))) {
+            ids.remove(key, id);
+        }
+    }
+
+    void forcePut(Long id, K key) {
+        K previous = key == null ? keys.remove(id) : keys.put(id, key);
+        if (key != null) {
+            ids.put(key, id);
+        }
+        if (previous != null && !previous.equals(key)) {
+            ids.remove(previous, id);
+        }
+    }
+
+    void remove(Long id) {
+        K key = keys.remove(id);
+        if (key != null) {
+            ids.remove(key, id);
+        }
+    }
+
+    Long get(K key) {
+        return key == null ? null : ids.get(key);
+    }
+
+    boolean contains(K key) {
+        return key != null && ids.containsKey(key);
+    }
+}
@@ -4,71 +4,73 @@ import ecommerce.model.User;
 import ecommerce.repository.UserRepository;
 import java.util.*;
 
-public class UserRepositoryImpl implements UserRepository {
-    private final Map<Long, User> database;
-    private Long nextId;
+public class UserRepositoryImpl extends AbstractRepository<User> implements UserRepository {
+    private final UniqueIndex<String> emailIndex;
 
     public UserRepositoryImpl() {
-        this.database = new HashMap<>();
-        this.nextId = 1L;
+        super("User");
+        this.emailIndex = new UniqueIndex<>();
     }
 
     @Override
-    public User save(User entity) {
-        if (entity.getId() == null) {
-            entity.setId(nextId++);
-        }
-        database.put(entity.getId(), entity);
-        return entity;
+    public Optional<User> findByEmail(String email) {
+        Long id = emailIndex.get(normalizeEmail(email));
+        return id == null ? Optional.empty() : Optional.ofNullable(database.get(id));
     }
 
     @Override
-    public User update(User entity) {
-        if (entity.getId() == null || !database.containsKey(entity.getId())) {
-            throw new IllegalArgumentException("User not found with ID: " + entity.getId());
-        }
-        database.put(entity.getId(), entity);
-        return entity;
+    public boolean existsByEmail(String email) {
+        return emailIndex.contains(normalizeEmail(email));
     }
 
     @Override
-    public void delete(Long id) {
-        if (!database.containsKey(id)) {
-            throw new IllegalArgumentException("User not found with ID: " + id);
+    protected void validate(List<Long> batchIds, List<User> batch) {
+        Map<String, Long> claimed = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Long id = batchIds.get(i);
+            String email = normalizeEmail(batch.get(i).getEmail());
+            if (email == null) {
+                continue;
+            }
+            Long batchOwner = claimed.putIfAbsent(email, id);
+            if (batchOwner != null && !batchOwner.equals(id)) {
+                throw new IllegalArgumentException("Email already registered: " + batch.get(i).getEmail());
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String email = normalizeEmail(batch.get(i).getEmail());
+            if (email != null && !emailIndex.reserve(batchIds.get(i), email)) {
+                abandon(batchIds.subList(0, i), batch.subList(0, i));
+                throw new IllegalArgumentException("Email already registered: " + batch.get(i).getEmail());
+            }
         }
-        database.remove(id);
-    }
-
-    @Override
-    public Optional<User> findById(Long id) {
-        return Optional.ofNullable(database.get(id));
     }
 
     @Override
-    public List<User> findAll() {
-        return new ArrayList<>(database.values());
+    protected void abandon(List<Long> batchIds, List<User> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            emailIndex.release(batchIds.get(i), normalizeEmail(batch.get(i).getEmail()));
+        }
     }
 
     @Override
-    public boolean existsById(Long id) {
-        return database.containsKey(id);
+    protected void index(Long id, User entity) {
+        if (!emailIndex.put(id, normalizeEmail(entity.getEmail()))) {
+            throw new IllegalArgumentException("Email already registered: " + entity.getEmail());
+        }
     }
 
     @Override
-    public long count() {
-        return database.size();
+    protected void restoreIndex(Long id, User entity) {
+        emailIndex.forcePut(id, normalizeEmail(entity.getEmail()));
     }
 
     @Override
-    public Optional<User> findByEmail(String email) {
-        return database.values().stream()
-                .filter(u -> u.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+    protected void unindex(Long id) {
+        emailIndex.remove(id);
     }
 
-    @Override
-    public boolean existsByEmail(String email) {
-        return database.values().stream()
-                .anyMatch(u -> u.getEmail().equalsIgnoreCase(email));
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 }
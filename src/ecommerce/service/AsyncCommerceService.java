@@ -0,0 +1,252 @@
+package ecommerce.service;
+
+import ecommerce.model.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+public class AsyncCommerceService implements AutoCloseable {
+    private final ProductService productService;
+    private final UserService userService;
+    private final OrderService orderService;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    public AsyncCommerceService(ProductService productService, UserService userService, OrderService orderService) {
+        this(productService, userService, orderService, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    public AsyncCommerceService(ProductService productService, UserService userService, OrderService orderService,
+                                Executor executor) {
+        this(productService, userService, orderService, executor, false);
+    }
+
+    private AsyncCommerceService(ProductService productService, UserService userService, OrderService orderService,
+                                 Executor executor, boolean ownsExecutor) {
+        this.productService = productService;
+        this.userService = userService;
+        this.orderService = orderService;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    public CompletableFuture<Product> getProduct(Long id) {
+        return async(() -> productService.getProduct(id));
+    }
+
+    public CompletableFuture<List<Product>> getProducts(Collection<Long> ids) {
+        List<CompletableFuture<Product>> lookups = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            lookups.add(getProduct(id));
+        }
+        return allOf(lookups);
+    }
+
+    public CompletableFuture<List<Product>> getProductsPage(Long afterId, int limit) {
+        return async(() -> productService.getProductsPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<Product>> getProductsByCategory(String category, Long afterId, int limit) {
+        return async(() -> productService.getProductsByCategory(category, afterId, limit));
+    }
+
+    public CompletableFuture<Integer> getStockQuantity(Long productId) {
+        return getProduct(productId).thenApply(AsyncCommerceService::stockOf);
+    }
+
+    public CompletableFuture<Void> updateStock(Long productId, int quantity) {
+        return run(() -> productService.updateStock(productId, quantity));
+    }
+
+    public CompletableFuture<User> createUser(User user) {
+        return async(() -> userService.createUser(user));
+    }
+
+    public CompletableFuture<User> getUser(Long id) {
+        return async(() -> userService.getUser(id));
+    }
+
+    public CompletableFuture<User> getUserByEmail(String email) {
+        return async(() -> userService.getUserByEmail(email));
+    }
+
+    public CompletableFuture<Boolean> authenticateUser(String email, String password) {
+        return async(() -> userService.authenticateUser(email, password));
+    }
+
+    public CompletableFuture<Optional<String>> login(String email, String password) {
+        return async(() -> userService.login(email, password));
+    }
+
+    public CompletableFuture<Order> getOrder(Long id) {
+        return async(() -> orderService.getOrder(id));
+    }
+
+    public CompletableFuture<List<Order>> getCustomerOrders(Long customerId) {
+        return async(() -> orderService.getCustomerOrders(customerId));
+    }
+
+    public CompletableFuture<Order> createOrder(Long customerId, String paymentMethod, Map<Long, Integer> quantities) {
+        Map<Long, Integer> lines = new LinkedHashMap<>(quantities);
+        CompletableFuture<Customer> customer = getCustomer(customerId);
+        CompletableFuture<List<Product>> products = getProducts(lines.keySet());
+        return customer.thenCombineAsync(products, (buyer, found) -> {
+            List<OrderItem> items = new ArrayList<>(found.size());
+            int index = 0;
+            for (Integer quantity : lines.values()) {
+                items.add(new OrderItem(null, found.get(index++), quantity));
+            }
+            return items.isEmpty()
+                    ? orderService.createOrder(buyer, paymentMethod)
+                    : orderService.createOrder(buyer, paymentMethod, items);
+        }, executor);
+    }
+
+    public CompletableFuture<Order> addItemToOrder(Long orderId, Long productId, int quantity) {
+        return getProduct(productId).thenApplyAsync(product -> {
+            orderService.addItemToOrder(orderId, product, quantity);
+            return orderService.getOrder(orderId);
+        }, executor);
+    }
+
+    public CompletableFuture<Order> confirmOrder(Long orderId) {
+        return transition(orderId, () -> orderService.confirmOrder(orderId));
+    }
+
+    public CompletableFuture<Order> processOrder(Long orderId) {
+        return transition(orderId, () -> orderService.processOrder(orderId));
+    }
+
+    public CompletableFuture<Order> shipOrder(Long orderId) {
+        return transition(orderId, () -> orderService.shipOrder(orderId));
+    }
+
+    public CompletableFuture<Order> deliverOrder(Long orderId) {
+        return transition(orderId, () -> orderService.deliverOrder(orderId));
+    }
+
+    public CompletableFuture<Order> cancelOrder(Long orderId) {
+        return transition(orderId, () -> orderService.cancelOrder(orderId));
+    }
+
+    public CompletableFuture<Integer> advanceOrders(Order.OrderStatus status, Collection<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(orderIds);
+        return async(() -> orderService.advanceOrders(status, ids));
+    }
+
+    public CompletableFuture<ProductPage> loadProductPage(Long productId, Long customerId) {
+        CompletableFuture<Product> product = getProduct(productId);
+        CompletableFuture<List<Order>> orders = getCustomerOrders(customerId);
+        return product.thenCombine(orders, (found, customerOrders) ->
+                new ProductPage(found, stockOf(found), customerOrders));
+    }
+
+    public CompletableFuture<CustomerOverview> loadCustomerOverview(Long customerId) {
+        CompletableFuture<Customer> customer = getCustomer(customerId);
+        CompletableFuture<List<Order>> orders = getCustomerOrders(customerId);
+        CompletableFuture<Money> revenue = async(() -> orderService.getCustomerRevenue(customerId));
+        return CompletableFuture.allOf(customer, orders, revenue)
+                .thenApply(done -> new CustomerOverview(customer.join(), orders.join(), revenue.join()));
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.close();
+        }
+    }
+
+    private CompletableFuture<Customer> getCustomer(Long customerId) {
+        return getUser(customerId).thenApply(user -> {
+            if (!(user instanceof Customer)) {
+                throw new IllegalArgumentException("User is not a customer: " + user.getId());
+            }
+            return (Customer) user;
+        });
+    }
+
+    private CompletableFuture<Order> transition(Long orderId, Runnable transition) {
+        return async(() -> {
+            transition.run();
+            return orderService.getOrder(orderId);
+        });
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    private CompletableFuture<Void> run(Runnable call) {
+        return CompletableFuture.runAsync(call, executor);
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<T> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    private static Integer stockOf(Product product) {
+        return product instanceof PhysicalProduct ? ((PhysicalProduct) product).getStockQuantity() : null;
+    }
+
+    public static final class ProductPage {
+        private final Product product;
+        private final Integer stockQuantity;
+        private final List<Order> customerOrders;
+
+        ProductPage(Product product, Integer stockQuantity, List<Order> customerOrders) {
+            this.product = product;
+            this.stockQuantity = stockQuantity;
+            this.customerOrders = customerOrders;
+        }
+
+        public Product getProduct() {
+            return product;
+        }
+
+        public Integer getStockQuantity() {
+            return stockQuantity;
+        }
+
+        public List<Order> getCustomerOrders() {
+            return customerOrders;
+        }
+    }
+
+    public static final class CustomerOverview {
+        private final Customer customer;
+        private final List<Order> orders;
+        private final Money revenue;
+
+        CustomerOverview(Customer customer, List<Order> orders, Money revenue) {
+            this.customer = customer;
+            this.orders = orders;
+            this.revenue = revenue;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public List<Order> getOrders() {
+            return orders;
+        }
+
+        public Money getRevenue() {
+            return revenue;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ecommerce.service;
+
+import ecommerce.model.Order;
+import ecommerce.util.Logger;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class FulfillmentScheduler implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(FulfillmentScheduler.class);
+
+    private final OrderService orderService;
+    private final ScheduledExecutorService scheduler;
+
+    public FulfillmentScheduler(OrderService orderService) {
+        this.orderService = orderService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fulfillment-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ScheduledFuture<?> scheduleAdvance(Order.OrderStatus status, Duration olderThan, Duration interval) {
+        long millis = interval.toMillis();
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                orderService.advanceOrdersOlderThan(status, olderThan);
+            } catch (RuntimeException e) {
+                LOGGER.warn(() -> "Scheduled " + status + " transition failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Integer> submitAdvance(Order.OrderStatus status, Collection<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(orderIds);
+        return CompletableFuture.supplyAsync(() -> orderService.advanceOrders(status, ids), scheduler);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
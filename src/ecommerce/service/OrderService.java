@@ -1,18 +1,45 @@
 package ecommerce.service;
 
+import ecommerce.analytics.SalesAnalytics;
+import ecommerce.event.OrderEventBus;
+import ecommerce.event.OrderEventType;
 import ecommerce.model.*;
 import ecommerce.repository.OrderRepository;
+import ecommerce.repository.PersistenceException;
+import ecommerce.repository.UnitOfWork;
+import ecommerce.util.Logger;
 import ecommerce.util.ValidationUtil;
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class OrderService {
+    private static final Logger LOGGER = Logger.getLogger(OrderService.class);
+
+    private static final int TRANSITION_CHUNK_SIZE = 256;
+
     private final OrderRepository orderRepository;
     private final ProductService productService;
+    private final Supplier<UnitOfWork> unitOfWork;
+    private final SalesAnalytics analytics;
+    private final OrderEventBus events;
 
-    public OrderService(OrderRepository orderRepository, ProductService productService) {
+    public OrderService(OrderRepository orderRepository, ProductService productService,
+                        Supplier<UnitOfWork> unitOfWork, SalesAnalytics analytics, OrderEventBus events) {
         this.orderRepository = orderRepository;
         this.productService = productService;
+        this.unitOfWork = unitOfWork;
+        this.analytics = analytics;
+        this.events = events;
     }
 
     public Order createOrder(Customer customer, String paymentMethod) {
@@ -20,131 +47,448 @@ public class OrderService {
         ValidationUtil.validateNotEmpty(paymentMethod, "Payment method cannot be empty");
         
         Order order = new Order(null, customer, paymentMethod);
-        System.out.println("Creating order for customer: " + customer.getName());
-        return orderRepository.save(order);
+        LOGGER.info(() -> "Creating order for customer: " + customer.getName());
+        orderRepository.save(order);
+        events.publish(OrderEventType.PLACED, order, order.getOrderDate());
+        return order;
     }
 
     public Order createOrder(Customer customer, String paymentMethod, List<OrderItem> items) {
-        Order order = createOrder(customer, paymentMethod);
-        items.forEach(order::addItem);
-        return orderRepository.update(order);
+        ValidationUtil.validateNotNull(customer, "Customer cannot be null");
+        ValidationUtil.validateNotEmpty(paymentMethod, "Payment method cannot be empty");
+        ValidationUtil.validateNotNull(items, "Order items cannot be null");
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+
+        List<StockChange> reserved = productService.reserveStock(items);
+        Order order = new Order(null, customer, paymentMethod);
+        order.setItems(new ArrayList<>(items));
+        try {
+            UnitOfWork work = unitOfWork.get();
+            productService.stageStockChanges(work, reserved);
+            work.save(orderRepository, order);
+            LOGGER.info(() -> "Creating order for customer: " + customer.getName());
+            work.commit();
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            productService.releaseStock(items);
+            throw e;
+        }
+        events.publish(OrderEventType.PLACED, order, order.getOrderDate());
+        return order;
     }
 
     public Order getOrder(Long id) {
-        return orderRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found with ID: " + id));
+        Order order = id == null ? null : orderRepository.findByIdOrNull(id);
+        if (order == null) {
+            throw new IllegalArgumentException("Order not found with ID: " + id);
+        }
+        return order;
     }
 
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
+    public List<Order> getOrdersPage(Long afterId, int limit) {
+        return orderRepository.findAll(afterId, limit);
+    }
+
     public List<Order> getCustomerOrders(Long customerId) {
         return orderRepository.findByCustomerId(customerId);
     }
 
+    public List<Order> getCustomerOrders(Long customerId, Long afterId, int limit) {
+        return orderRepository.findByCustomerId(customerId, afterId, limit);
+    }
+
     public List<Order> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
 
+    public List<Order> getOrdersByStatus(Order.OrderStatus status, Long afterId, int limit) {
+        return orderRepository.findByStatus(status, afterId, limit);
+    }
+
     public void addItemToOrder(Long orderId, Product product, int quantity) {
         Order order = getOrder(orderId);
-        
+        ValidationUtil.validatePositive(quantity, "Quantity must be greater than zero");
+
+        StockChange reserved = null;
         if (product instanceof PhysicalProduct) {
-            PhysicalProduct physicalProduct = (PhysicalProduct) product;
-            if (!physicalProduct.hasStock(quantity)) {
+            reserved = ((PhysicalProduct) product).tryReserve(quantity);
+            if (reserved == null) {
                 throw new IllegalStateException("Insufficient stock for product: " + product.getName());
             }
-            physicalProduct.reduceStock(quantity);
-            productService.updateProduct(physicalProduct);
         }
-        
+
         OrderItem item = new OrderItem(null, product, quantity);
-        order.addItem(item);
-        orderRepository.update(order);
-        System.out.println("Item added to order: " + product.getName());
+        synchronized (order) {
+            if (order.getStatus() != Order.OrderStatus.PENDING) {
+                if (reserved != null) {
+                    reserved.getProduct().releaseStock(quantity);
+                }
+                throw new IllegalStateException("Cannot add items to order #" + orderId
+                        + " with status " + order.getStatus());
+            }
+            order.addItem(item);
+        }
+        try {
+            UnitOfWork work = unitOfWork.get();
+            if (reserved != null) {
+                productService.stageStockChange(work, reserved);
+            }
+            work.update(orderRepository, order).commit();
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            synchronized (order) {
+                if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+                    order.removeItem(item);
+                    if (reserved != null) {
+                        reserved.getProduct().releaseStock(quantity);
+                    }
+                }
+            }
+            throw e;
+        }
+        LOGGER.info(() -> "Item added to order: " + product.getName());
     }
 
     public void applyDiscount(Long orderId, int discountPercentage) {
         Order order = getOrder(orderId);
         order.applyDiscount(discountPercentage);
         orderRepository.update(order);
-        System.out.println("Discount applied: " + discountPercentage + "%");
+        LOGGER.info(() -> "Discount applied: " + discountPercentage + "%");
     }
 
-    public void applyDiscount(Long orderId, BigDecimal discountAmount) {
+    public void applyDiscount(Long orderId, Money discountAmount) {
         Order order = getOrder(orderId);
         order.applyDiscount(discountAmount);
         orderRepository.update(order);
-        System.out.println("Discount applied: R$ " + discountAmount);
+        LOGGER.info(() -> "Discount applied: R$ " + discountAmount);
     }
 
     public void confirmOrder(Long orderId) {
-        Order order = getOrder(orderId);
-        order.confirmOrder();
-        orderRepository.update(order);
+        advance(getOrder(orderId), Transition.CONFIRM);
     }
 
     public void processOrder(Long orderId) {
-        Order order = getOrder(orderId);
-        order.processOrder();
-        orderRepository.update(order);
+        advance(getOrder(orderId), Transition.PROCESS);
     }
 
     public void shipOrder(Long orderId) {
-        Order order = getOrder(orderId);
-        order.shipOrder();
-        orderRepository.update(order);
+        advance(getOrder(orderId), Transition.SHIP);
     }
 
     public void deliverOrder(Long orderId) {
-        Order order = getOrder(orderId);
-        order.deliverOrder();
-        orderRepository.update(order);
+        advance(getOrder(orderId), Transition.DELIVER);
+    }
+
+    public int confirmOrders(Collection<Long> orderIds) {
+        return advanceOrders(Order.OrderStatus.PENDING, orderIds);
+    }
+
+    public int processOrders(Collection<Long> orderIds) {
+        return advanceOrders(Order.OrderStatus.CONFIRMED, orderIds);
+    }
+
+    public int shipOrders(Collection<Long> orderIds) {
+        return advanceOrders(Order.OrderStatus.PROCESSING, orderIds);
+    }
+
+    public int deliverOrders(Collection<Long> orderIds) {
+        return advanceOrders(Order.OrderStatus.SHIPPED, orderIds);
+    }
+
+    public int advanceOrders(Order.OrderStatus status, Collection<Long> orderIds) {
+        Transition transition = Transition.from(status);
+        List<Order> candidates = new ArrayList<>(orderIds.size());
+        for (Long id : new LinkedHashSet<>(orderIds)) {
+            Order order = id == null ? null : orderRepository.findByIdOrNull(id);
+            if (order != null && order.getStatus() == status) {
+                candidates.add(order);
+            }
+        }
+        return applyInChunks(transition, candidates);
+    }
+
+    public int advanceOrdersOlderThan(Order.OrderStatus status, Duration age) {
+        Transition transition = Transition.from(status);
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        List<Order> candidates = orderRepository.streamByStatus(status)
+                .filter(order -> order.getOrderDate().isBefore(cutoff))
+                .collect(Collectors.toList());
+        return applyInChunks(transition, candidates);
+    }
+
+    public void loadAnalytics() {
+        orderRepository.stream().forEach(analytics::recordOrder);
+    }
+
+    public long getOrdersPlaced(SalesAnalytics.Window window) {
+        return analytics.getOrdersPlaced(window);
+    }
+
+    public long getOrdersDelivered(SalesAnalytics.Window window) {
+        return analytics.getOrdersDelivered(window);
+    }
+
+    public Money getRevenue(SalesAnalytics.Window window) {
+        return analytics.getRevenue(window);
     }
 
     public void cancelOrder(Long orderId) {
         Order order = getOrder(orderId);
-        order.cancelOrder();
-        
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            if (product instanceof PhysicalProduct) {
-                PhysicalProduct physicalProduct = (PhysicalProduct) product;
-                physicalProduct.addStock(item.getQuantity());
-                productService.updateProduct(physicalProduct);
+        Order.OrderStatus previousStatus;
+        List<OrderItem> items;
+        synchronized (order) {
+            previousStatus = order.getStatus();
+            if (!order.cancelOrder()) {
+                return;
             }
+            items = new ArrayList<>(order.getItems());
         }
-        
-        orderRepository.update(order);
+
+        UnitOfWork work = unitOfWork.get();
+        List<OrderItem> restocked = new ArrayList<>();
+        List<StockChange> released = new ArrayList<>();
+        try {
+            for (OrderItem item : items) {
+                Product product = item.getProduct();
+                if (product instanceof PhysicalProduct) {
+                    released.add(((PhysicalProduct) product).releaseStock(item.getQuantity()));
+                    restocked.add(item);
+                }
+            }
+            productService.stageStockChanges(work, released);
+            work.update(orderRepository, order).commit();
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            synchronized (order) {
+                if (reclaimStock(restocked)) {
+                    order.compareAndSetStatus(Order.OrderStatus.CANCELLED, previousStatus);
+                    throw e;
+                }
+            }
+            LOGGER.warn(() -> "Stock released by order #" + orderId + " was already re-sold; keeping the cancellation", e);
+            try {
+                UnitOfWork retryWork = unitOfWork.get();
+                productService.stageStockChanges(retryWork, released);
+                retryWork.update(orderRepository, order).commit();
+            } catch (PersistenceException retry) {
+                throw retry;
+            } catch (RuntimeException retry) {
+                e.addSuppressed(retry);
+                throw new IllegalStateException("Order #" + orderId + " is cancelled but could not be persisted", e);
+            }
+        }
+        events.publish(OrderEventType.CANCELLED, order);
     }
 
     public void deleteOrder(Long id) {
         if (!orderRepository.existsById(id)) {
             throw new IllegalArgumentException("Order not found with ID: " + id);
         }
-        System.out.println("Deleting order with ID: " + id);
+        LOGGER.info(() -> "Deleting order with ID: " + id);
         orderRepository.delete(id);
     }
 
     public void displayAllOrders() {
-        List<Order> orders = getAllOrders();
         System.out.println("\n=== All Orders ===");
-        if (orders.isEmpty()) {
+        if (orderRepository.count() == 0) {
             System.out.println("No orders found.");
         } else {
-            orders.forEach(Order::displayOrderSummary);
+            orderRepository.stream().forEach(Order::displayOrderSummary);
         }
     }
 
-    public BigDecimal calculateTotalRevenue() {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.DELIVERED)
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money calculateTotalRevenue() {
+        return orderRepository.revenueByStatus(Order.OrderStatus.DELIVERED);
+    }
+
+    public Money getCustomerRevenue(Long customerId) {
+        return orderRepository.revenueByCustomer(customerId);
+    }
+
+    public long getOrderCount(Order.OrderStatus status) {
+        return orderRepository.countByStatus(status);
+    }
+
+    public Money getRevenueByStatus(Order.OrderStatus status) {
+        return orderRepository.revenueByStatus(status);
     }
 
     public long getTotalOrders() {
         return orderRepository.count();
     }
+
+    private void advance(Order order, Transition transition) {
+        boolean changed = transition.apply(order);
+        try {
+            orderRepository.update(order);
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (changed) {
+                transition.revert(order);
+            }
+            throw e;
+        }
+        if (changed) {
+            events.publish(transition.event, order, transition.occurredAt(order));
+        }
+    }
+
+    private static boolean reclaimStock(List<OrderItem> restocked) {
+        List<OrderItem> reclaimed = new ArrayList<>(restocked.size());
+        for (OrderItem item : restocked) {
+            PhysicalProduct product = (PhysicalProduct) item.getProduct();
+            if (!product.tryReserveStock(item.getQuantity())) {
+                for (OrderItem taken : reclaimed) {
+                    ((PhysicalProduct) taken.getProduct()).releaseStock(taken.getQuantity());
+                }
+                return false;
+            }
+            reclaimed.add(item);
+        }
+        return true;
+    }
+
+    private int applyInChunks(Transition transition, List<Order> candidates) {
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int start = 0; start < candidates.size(); start += TRANSITION_CHUNK_SIZE) {
+                List<Order> chunk = candidates.subList(start, Math.min(start + TRANSITION_CHUNK_SIZE, candidates.size()));
+                chunks.add(executor.submit(() -> applyChunk(transition, chunk)));
+            }
+        }
+        int transitioned = 0;
+        RuntimeException failure = null;
+        for (Future<Integer> chunk : chunks) {
+            try {
+                transitioned += chunk.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("Failed to " + transition.name().toLowerCase()
+                            + " orders", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while transitioning orders", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        int count = transitioned;
+        LOGGER.info(() -> transition.event + ": " + count + " orders");
+        return transitioned;
+    }
+
+    private int applyChunk(Transition transition, List<Order> chunk) {
+        List<Order> pending = chunk;
+        while (true) {
+            List<Order> changed = new ArrayList<>(pending.size());
+            for (Order order : pending) {
+                if (orderRepository.existsById(order.getId()) && transition.apply(order)) {
+                    changed.add(order);
+                }
+            }
+            if (changed.isEmpty()) {
+                return 0;
+            }
+            try {
+                orderRepository.updateAll(changed);
+            } catch (PersistenceException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                changed.forEach(transition::revert);
+                if (changed.stream().allMatch(order -> orderRepository.existsById(order.getId()))) {
+                    throw e;
+                }
+                pending = changed;
+                continue;
+            }
+            for (Order order : changed) {
+                events.publish(transition.event, order, transition.occurredAt(order));
+            }
+            return changed.size();
+        }
+    }
+
+    private enum Transition {
+        CONFIRM(Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, OrderEventType.CONFIRMED) {
+            @Override
+            boolean apply(Order order) {
+                return order.confirmOrder();
+            }
+        },
+        PROCESS(Order.OrderStatus.CONFIRMED, Order.OrderStatus.PROCESSING, OrderEventType.PROCESSING) {
+            @Override
+            boolean apply(Order order) {
+                return order.processOrder();
+            }
+        },
+        SHIP(Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED, OrderEventType.SHIPPED) {
+            @Override
+            boolean apply(Order order) {
+                return order.shipOrder();
+            }
+        },
+        DELIVER(Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED, OrderEventType.DELIVERED) {
+            @Override
+            boolean apply(Order order) {
+                return order.deliverOrder();
+            }
+
+            @Override
+            boolean revert(Order order) {
+                synchronized (order) {
+                    if (!super.revert(order)) {
+                        return false;
+                    }
+                    order.setDeliveryDate(null);
+                    return true;
+                }
+            }
+
+            @Override
+            LocalDateTime occurredAt(Order order) {
+                return order.getDeliveryDate();
+            }
+        };
+
+        final Order.OrderStatus from;
+        final Order.OrderStatus to;
+        final OrderEventType event;
+
+        Transition(Order.OrderStatus from, Order.OrderStatus to, OrderEventType event) {
+            this.from = from;
+            this.to = to;
+            this.event = event;
+        }
+
+        abstract boolean apply(Order order);
+
+        boolean revert(Order order) {
+            return order.compareAndSetStatus(to, from);
+        }
+
+        LocalDateTime occurredAt(Order order) {
+            return LocalDateTime.now();
+        }
+
+        static Transition from(Order.OrderStatus status) {
+            for (Transition transition : values()) {
+                if (transition.from == status) {
+                    return transition;
+                }
+            }
+            throw new IllegalArgumentException("No bulk transition from status: " + status);
+        }
+    }
 }
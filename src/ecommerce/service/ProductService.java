@@ -1,34 +1,59 @@
 package ecommerce.service;
 
+import ecommerce.model.Money;
+import ecommerce.model.OrderItem;
 import ecommerce.model.PhysicalProduct;
 import ecommerce.model.Product;
+import ecommerce.model.StockChange;
 import ecommerce.repository.ProductRepository;
+import ecommerce.repository.UnitOfWork;
+import ecommerce.util.Logger;
+import ecommerce.util.StripedLock;
 import ecommerce.util.ValidationUtil;
-import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ProductService {
+    private static final Logger LOGGER = Logger.getLogger(ProductService.class);
+
+    private static final int STOCK_LOCK_STRIPES = 64;
+
     private final ProductRepository productRepository;
+    private final StripedLock stockLocks;
 
     public ProductService(ProductRepository productRepository) {
         this.productRepository = productRepository;
+        this.stockLocks = new StripedLock(STOCK_LOCK_STRIPES);
     }
 
     public Product createProduct(Product product) {
         ValidationUtil.validateProduct(product);
-        System.out.println("Creating product: " + product.getName());
+        LOGGER.info(() -> "Creating product: " + product.getName());
         return productRepository.save(product);
     }
 
+    public List<Product> createProducts(List<Product> products) {
+        products.forEach(ValidationUtil::validateProduct);
+        LOGGER.info(() -> "Creating " + products.size() + " products");
+        return productRepository.saveAll(products);
+    }
+
     public Product getProduct(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + id));
+        Product product = id == null ? null : productRepository.findByIdOrNull(id);
+        if (product == null) {
+            throw new IllegalArgumentException("Product not found with ID: " + id);
+        }
+        return product;
     }
 
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    public List<Product> getProductsPage(Long afterId, int limit) {
+        return productRepository.findAll(afterId, limit);
+    }
+
     public List<Product> getAvailableProducts() {
         return productRepository.findAvailableProducts();
     }
@@ -37,6 +62,10 @@ public class ProductService {
         return productRepository.findByCategory(category);
     }
 
+    public List<Product> getProductsByCategory(String category, Long afterId, int limit) {
+        return productRepository.findByCategory(category, afterId, limit);
+    }
+
     public List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice) {
         return productRepository.findByPriceRange(minPrice, maxPrice);
     }
@@ -46,11 +75,11 @@ public class ProductService {
         if (!productRepository.existsById(product.getId())) {
             throw new IllegalArgumentException("Product not found with ID: " + product.getId());
         }
-        System.out.println("Updating product: " + product.getName());
+        LOGGER.info(() -> "Updating product: " + product.getName());
         return productRepository.update(product);
     }
 
-    public Product updateProductPrice(Long id, BigDecimal newPrice) {
+    public Product updateProductPrice(Long id, Money newPrice) {
         Product product = getProduct(id);
         product.setPrice(newPrice);
         return productRepository.update(product);
@@ -60,7 +89,7 @@ public class ProductService {
         if (!productRepository.existsById(id)) {
             throw new IllegalArgumentException("Product not found with ID: " + id);
         }
-        System.out.println("Deleting product with ID: " + id);
+        LOGGER.info(() -> "Deleting product with ID: " + id);
         productRepository.delete(id);
     }
 
@@ -68,11 +97,88 @@ public class ProductService {
         Product product = getProduct(productId);
         if (product instanceof PhysicalProduct) {
             PhysicalProduct physicalProduct = (PhysicalProduct) product;
-            physicalProduct.addStock(quantity);
+            if (quantity >= 0) {
+                physicalProduct.addStock(quantity);
+            } else if (!physicalProduct.tryReserveStock(-quantity)) {
+                throw new IllegalStateException("Insufficient stock for product: " + physicalProduct.getName());
+            }
             productRepository.update(physicalProduct);
-            System.out.println("Stock updated. New quantity: " + physicalProduct.getStockQuantity());
+            LOGGER.info(() -> "Stock updated. New quantity: " + physicalProduct.getStockQuantity());
         } else {
-            System.out.println("Cannot update stock for digital products");
+            LOGGER.warn(() -> "Cannot update stock for digital products");
+        }
+    }
+
+    public void enableHotSkuMode(Long productId, int shards) {
+        PhysicalProduct physicalProduct = getPhysicalProduct(productId);
+        physicalProduct.enableShardedStock(shards);
+        productRepository.update(physicalProduct);
+        LOGGER.info(() -> "Hot SKU mode enabled for: " + physicalProduct.getName());
+    }
+
+    public void disableHotSkuMode(Long productId) {
+        PhysicalProduct physicalProduct = getPhysicalProduct(productId);
+        physicalProduct.disableShardedStock();
+        productRepository.update(physicalProduct);
+        LOGGER.info(() -> "Hot SKU mode disabled for: " + physicalProduct.getName());
+    }
+
+    public void stageStockChange(UnitOfWork unitOfWork, StockChange change) {
+        PhysicalProduct product = change.getProduct();
+        if (change.isSharded()) {
+            unitOfWork.adjust(productRepository, product.getId(), change.getEpoch(), change.getDelta());
+        } else {
+            ValidationUtil.validateProduct(product);
+            unitOfWork.update(productRepository, product);
+        }
+    }
+
+    public List<StockChange> reserveStock(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, PhysicalProduct> products = new HashMap<>();
+        for (OrderItem item : items) {
+            ValidationUtil.validateNotNull(item, "Order item cannot be null");
+            ValidationUtil.validatePositive(item.getQuantity(), "Quantity must be greater than zero");
+            if (item.getProduct() instanceof PhysicalProduct) {
+                PhysicalProduct physicalProduct = (PhysicalProduct) item.getProduct();
+                ValidationUtil.validateNotNull(physicalProduct.getId(), "Product must be saved before checkout");
+                products.put(physicalProduct.getId(), physicalProduct);
+                quantities.merge(physicalProduct.getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+
+        List<ReentrantLock> held = stockLocks.forKeys(quantities.keySet());
+        List<StockChange> reserved = new ArrayList<>(quantities.size());
+        StripedLock.lockAll(held);
+        try {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                PhysicalProduct physicalProduct = products.get(entry.getKey());
+                StockChange change = physicalProduct.tryReserve(entry.getValue());
+                if (change == null) {
+                    for (StockChange taken : reserved) {
+                        taken.getProduct().releaseStock(-taken.getDelta());
+                    }
+                    throw new IllegalStateException("Insufficient stock for product: " + physicalProduct.getName());
+                }
+                reserved.add(change);
+            }
+        } finally {
+            StripedLock.unlockAll(held);
+        }
+        return reserved;
+    }
+
+    public void releaseStock(List<OrderItem> items) {
+        for (OrderItem item : items) {
+            if (item.getProduct() instanceof PhysicalProduct) {
+                ((PhysicalProduct) item.getProduct()).releaseStock(item.getQuantity());
+            }
+        }
+    }
+
+    public void stageStockChanges(UnitOfWork unitOfWork, Collection<StockChange> changes) {
+        for (StockChange change : changes) {
+            stageStockChange(unitOfWork, change);
         }
     }
 
@@ -80,16 +186,15 @@ public class ProductService {
         Product product = getProduct(id);
         product.setAvailable(available);
         productRepository.update(product);
-        System.out.println("Product availability updated: " + available);
+        LOGGER.info(() -> "Product availability updated: " + available);
     }
 
     public void displayAllProducts() {
-        List<Product> products = getAllProducts();
         System.out.println("\n=== All Products ===");
-        if (products.isEmpty()) {
+        if (productRepository.count() == 0) {
             System.out.println("No products found.");
         } else {
-            products.forEach(Product::displayProductDetails);
+            productRepository.stream().forEach(Product::displayProductDetails);
             System.out.println();
         }
     }
@@ -97,4 +202,12 @@ public class ProductService {
     public long getTotalProducts() {
         return productRepository.count();
     }
+
+    private PhysicalProduct getPhysicalProduct(Long productId) {
+        Product product = getProduct(productId);
+        if (!(product instanceof PhysicalProduct)) {
+            throw new IllegalArgumentException("Hot SKU mode requires a physical product: " + productId);
+        }
+        return (PhysicalProduct) product;
+    }
 }
@@ -0,0 +1,135 @@
+package ecommerce.service;
+
+import ecommerce.util.ValidationUtil;
+import java.io.Closeable;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class SessionManager implements Closeable {
+    private static final int TOKEN_BYTES = 32;
+
+    private final Map<String, Session> sessions;
+    private final Map<Long, Set<String>> tokensByUser;
+    private final SecureRandom random;
+    private final Duration ttl;
+    private final ScheduledExecutorService sweeper;
+
+    public SessionManager(Duration ttl) {
+        ValidationUtil.validateNotNull(ttl, "Session TTL cannot be null");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Session TTL must be positive");
+        }
+        this.sessions = new ConcurrentHashMap<>();
+        this.tokensByUser = new ConcurrentHashMap<>();
+        this.random = new SecureRandom();
+        this.ttl = ttl;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1L, ttl.toMillis() / 4);
+        sweeper.scheduleWithFixedDelay(this::evictExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public String createSession(Long userId) {
+        ValidationUtil.validateNotNull(userId, "User ID cannot be null");
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(userId, System.nanoTime() + ttl.toNanos());
+        tokensByUser.compute(userId, (id, tokens) -> {
+            Set<String> userTokens = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            userTokens.add(token);
+            sessions.put(token, session);
+            return userTokens;
+        });
+        return token;
+    }
+
+    public Long getUserId(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(System.nanoTime())) {
+            remove(token, session);
+            return null;
+        }
+        return session.userId;
+    }
+
+    public void invalidate(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session != null) {
+            remove(token, session);
+        }
+    }
+
+    public int invalidateUser(Long userId) {
+        int[] removed = {0};
+        if (userId != null) {
+            tokensByUser.computeIfPresent(userId, (id, tokens) -> {
+                for (String token : tokens) {
+                    if (sessions.remove(token) != null) {
+                        removed[0]++;
+                    }
+                }
+                return null;
+            });
+        }
+        return removed[0];
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        sessions.forEach((token, session) -> {
+            if (session.isExpired(now)) {
+                remove(token, session);
+            }
+        });
+    }
+
+    private void remove(String token, Session session) {
+        tokensByUser.computeIfPresent(session.userId, (id, tokens) -> {
+            sessions.remove(token, session);
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+        sessions.remove(token, session);
+    }
+
+    private static final class Session {
+        final Long userId;
+        final long expiresAtNanos;
+
+        Session(Long userId, long expiresAtNanos) {
+            this.userId = userId;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -2,15 +2,28 @@ package ecommerce.service;
 
 import ecommerce.model.Customer;
 import ecommerce.model.User;
+import ecommerce.repository.PersistenceException;
 import ecommerce.repository.UserRepository;
+import ecommerce.util.Logger;
+import ecommerce.util.PasswordHasher;
 import ecommerce.util.ValidationUtil;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class UserService {
+    private static final Logger LOGGER = Logger.getLogger(UserService.class);
+
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final SessionManager sessions;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher, SessionManager sessions) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.sessions = sessions;
     }
 
     public User createUser(User user) {
@@ -18,13 +31,36 @@ public class UserService {
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("Email already registered: " + user.getEmail());
         }
-        System.out.println("Creating user: " + user.getName());
+        user.setPassword(await(passwordHasher.hash(user.getPassword())));
+        LOGGER.info(() -> "Creating user: " + user.getName());
         return userRepository.save(user);
     }
 
+    public List<User> createUsers(List<User> users) {
+        for (User user : users) {
+            ValidationUtil.validateUser(user);
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new IllegalArgumentException("Email already registered: " + user.getEmail());
+            }
+        }
+        List<String> passwords = new ArrayList<>(users.size());
+        for (User user : users) {
+            passwords.add(user.getPassword());
+        }
+        List<CompletableFuture<String>> hashes = passwordHasher.hashAll(passwords);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setPassword(await(hashes.get(i)));
+        }
+        LOGGER.info(() -> "Creating " + users.size() + " users");
+        return userRepository.saveAll(users);
+    }
+
     public User getUser(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
+        User user = id == null ? null : userRepository.findByIdOrNull(id);
+        if (user == null) {
+            throw new IllegalArgumentException("User not found with ID: " + id);
+        }
+        return user;
     }
 
     public User getUserByEmail(String email) {
@@ -36,67 +72,106 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    public List<User> getUsersPage(Long afterId, int limit) {
+        return userRepository.findAll(afterId, limit);
+    }
+
     public User updateUser(User user) {
         ValidationUtil.validateUser(user);
-        if (!userRepository.existsById(user.getId())) {
+        User existing = userRepository.findByIdOrNull(user.getId());
+        if (existing == null) {
             throw new IllegalArgumentException("User not found with ID: " + user.getId());
         }
-        System.out.println("Updating user: " + user.getName());
+        String password = user.getPassword();
+        if (!PasswordHasher.isHashed(password) || !password.equals(existing.getPassword())) {
+            user.setPassword(await(passwordHasher.hash(password)));
+        }
+        LOGGER.info(() -> "Updating user: " + user.getName());
         return userRepository.update(user);
     }
 
     public User updateUserEmail(Long id, String newEmail) {
+        ValidationUtil.validateEmail(newEmail);
         User user = getUser(id);
-        if (userRepository.existsByEmail(newEmail) && !user.getEmail().equals(newEmail)) {
+        Optional<User> owner = userRepository.findByEmail(newEmail);
+        if (owner.isPresent() && !owner.get().getId().equals(id)) {
             throw new IllegalArgumentException("Email already in use: " + newEmail);
         }
+        String previousEmail = user.getEmail();
         user.setEmail(newEmail);
-        return userRepository.update(user);
+        try {
+            return userRepository.update(user);
+        } catch (IllegalArgumentException e) {
+            user.setEmail(previousEmail);
+            throw e;
+        }
     }
 
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new IllegalArgumentException("User not found with ID: " + id);
         }
-        System.out.println("Deleting user with ID: " + id);
+        LOGGER.info(() -> "Deleting user with ID: " + id);
         userRepository.delete(id);
+        sessions.invalidateUser(id);
     }
 
     public void deactivateUser(Long id) {
         User user = getUser(id);
         user.setActive(false);
         userRepository.update(user);
-        System.out.println("User deactivated: " + user.getName());
+        sessions.invalidateUser(id);
+        LOGGER.info(() -> "User deactivated: " + user.getName());
     }
 
     public void activateUser(Long id) {
         User user = getUser(id);
         user.setActive(true);
         userRepository.update(user);
-        System.out.println("User activated: " + user.getName());
+        LOGGER.info(() -> "User activated: " + user.getName());
     }
 
     public boolean authenticateUser(String email, String password) {
-        return userRepository.findByEmail(email)
-                .map(user -> user.getPassword().equals(password) && user.isActive())
-                .orElse(false);
+        return authenticate(email, password) != null;
+    }
+
+    public Optional<String> login(String email, String password) {
+        User user = authenticate(email, password);
+        if (user == null) {
+            return Optional.empty();
+        }
+        String token = sessions.createSession(user.getId());
+        LOGGER.info(() -> "User logged in: " + user.getName());
+        return Optional.of(token);
+    }
+
+    public Optional<User> getSessionUser(String token) {
+        Long userId = sessions.getUserId(token);
+        User user = userId == null ? null : userRepository.findByIdOrNull(userId);
+        if (user == null || !user.isActive()) {
+            sessions.invalidate(token);
+            return Optional.empty();
+        }
+        return Optional.of(user);
+    }
+
+    public void logout(String token) {
+        sessions.invalidate(token);
     }
 
     public void displayAllUsers() {
-        List<User> users = getAllUsers();
         System.out.println("\n=== All Users ===");
-        if (users.isEmpty()) {
+        if (userRepository.count() == 0) {
             System.out.println("No users found.");
         } else {
-            users.forEach(User::displayInfo);
+            userRepository.stream().forEach(User::displayInfo);
             System.out.println();
         }
     }
 
     public void displayCustomers() {
-        List<User> users = getAllUsers();
         System.out.println("\n=== All Customers ===");
-        users.stream()
+        userRepository.stream()
                 .filter(user -> user instanceof Customer)
                 .forEach(User::displayInfo);
         System.out.println();
@@ -105,4 +180,43 @@ public class UserService {
     public long getTotalUsers() {
         return userRepository.count();
     }
+
+    private User authenticate(String email, String password) {
+        User user = email == null ? null : userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            await(passwordHasher.verifyUnknown(password));
+            return null;
+        }
+        String stored = user.getPassword();
+        if (!await(passwordHasher.verify(password, stored)) || !user.isActive()) {
+            return null;
+        }
+        if (passwordHasher.needsRehash(stored)) {
+            upgradePassword(user, password, stored);
+        }
+        return user;
+    }
+
+    private void upgradePassword(User user, String password, String stored) {
+        user.setPassword(await(passwordHasher.hash(password)));
+        try {
+            userRepository.update(user);
+        } catch (PersistenceException e) {
+            LOGGER.warn(() -> "Failed to persist upgraded password hash for user: " + user.getName(), e);
+        } catch (RuntimeException e) {
+            user.setPassword(stored);
+            LOGGER.warn(() -> "Failed to upgrade password hash for user: " + user.getName(), e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package ecommerce.util;
 
+import ecommerce.model.Money;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.LocalDateTime;
@@ -15,6 +16,10 @@ public class FormatUtil {
         return CURRENCY_FORMAT.format(value);
     }
 
+    public static String formatCurrency(Money value) {
+        return formatCurrency(value.toBigDecimal());
+    }
+
     public static String formatDateTime(LocalDateTime dateTime) {
         return dateTime.format(DATE_TIME_FORMAT);
     }
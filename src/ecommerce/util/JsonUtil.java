@@ -0,0 +1,314 @@
+package ecommerce.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JsonUtil {
+    private static final int MAX_DEPTH = 64;
+
+    public static String toJson(Object value) {
+        StringBuilder out = new StringBuilder(128);
+        write(out, value);
+        return out.toString();
+    }
+
+    public static Object parse(String json) {
+        Parser parser = new Parser(json);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected trailing content");
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String json) {
+        Object value = parse(json);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("JSON object expected");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            writeString(out, (String) value);
+        } else if (value instanceof BigDecimal) {
+            out.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Enum) {
+            writeString(out, ((Enum<?>) value).name());
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                write(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                write(out, element);
+            }
+            out.append(']');
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class Parser {
+        private final String json;
+        private int position;
+        private int depth;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Object readValue() {
+            if (atEnd()) {
+                throw error("Unexpected end of input");
+            }
+            char c = json.charAt(position);
+            switch (c) {
+                case '{':
+                case '[':
+                    if (++depth > MAX_DEPTH) {
+                        throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+                    }
+                    Object nested = c == '{' ? readObject() : readArray();
+                    depth--;
+                    return nested;
+                case '"':
+                    return readString();
+                case 't':
+                    expect("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    expect("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    expect("null");
+                    return null;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++;
+            skipWhitespace();
+            if (peek('}')) {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (!peek('"')) {
+                    throw error("Object key expected");
+                }
+                String key = readString();
+                skipWhitespace();
+                consume(':');
+                skipWhitespace();
+                object.put(key, readValue());
+                skipWhitespace();
+                if (peek(',')) {
+                    position++;
+                } else {
+                    consume('}');
+                    return object;
+                }
+            }
+        }
+
+        List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            position++;
+            skipWhitespace();
+            if (peek(']')) {
+                position++;
+                return array;
+            }
+            while (true) {
+                skipWhitespace();
+                array.add(readValue());
+                skipWhitespace();
+                if (peek(',')) {
+                    position++;
+                } else {
+                    consume(']');
+                    return array;
+                }
+            }
+        }
+
+        String readString() {
+            position++;
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (atEnd()) {
+                    throw error("Unterminated string");
+                }
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (atEnd()) {
+                    throw error("Unterminated escape");
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        value.append(escaped);
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > json.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        throw error("Invalid escape '\\" + escaped + "'");
+                }
+            }
+        }
+
+        Object readNumber() {
+            int start = position;
+            boolean decimal = false;
+            while (!atEnd()) {
+                char c = json.charAt(position);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                position++;
+            }
+            String number = json.substring(start, position);
+            try {
+                return decimal ? new BigDecimal(number) : (Object) Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                try {
+                    return new BigDecimal(number);
+                } catch (NumberFormatException invalid) {
+                    throw error("Invalid number '" + number + "'");
+                }
+            }
+        }
+
+        void expect(String literal) {
+            if (!json.startsWith(literal, position)) {
+                throw error("Invalid literal");
+            }
+            position += literal.length();
+        }
+
+        void consume(char expected) {
+            if (!peek(expected)) {
+                throw error("'" + expected + "' expected");
+            }
+            position++;
+        }
+
+        boolean peek(char expected) {
+            return !atEnd() && json.charAt(position) == expected;
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean atEnd() {
+            return position >= json.length();
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + position + ": " + message);
+        }
+    }
+}
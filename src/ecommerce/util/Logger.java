@@ -0,0 +1,187 @@
+package ecommerce.util;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public final class Logger {
+    private static final int QUEUE_CAPACITY = Integer.getInteger("ecommerce.log.queue.capacity", 8192);
+    private static final int DRAIN_BATCH = 256;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private static final BlockingQueue<Entry> QUEUE = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static final PrintStream OUT = System.out;
+    private static final Thread WRITER = new Thread(Logger::writeLoop, "log-writer");
+    private static volatile Level threshold = Level.parse(System.getProperty("ecommerce.log.level"), Level.INFO);
+
+    static {
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Logger::flush, "log-flush"));
+    }
+
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF;
+
+        static Level parse(String value, Level defaultLevel) {
+            if (value == null) {
+                return defaultLevel;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return defaultLevel;
+            }
+        }
+    }
+
+    private final String name;
+
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    public static Logger getLogger(Class<?> owner) {
+        return new Logger(owner.getSimpleName());
+    }
+
+    public static void setLevel(Level level) {
+        ValidationUtil.validateNotNull(level, "Log level cannot be null");
+        threshold = level;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && level.compareTo(threshold) >= 0;
+    }
+
+    public void debug(Supplier<String> message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void warn(Supplier<String> message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(Supplier<String> message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    public void error(Supplier<String> message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    private void log(Level level, Supplier<String> message, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        Entry entry = new Entry(LocalDateTime.now(), level, name, message.get(), error);
+        if (!QUEUE.offer(entry)) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    private static void writeLoop() {
+        List<Entry> batch = new ArrayList<>(DRAIN_BATCH);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                Entry first = QUEUE.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    QUEUE.drainTo(batch, DRAIN_BATCH - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                long dropped = DROPPED.get();
+                if (dropped != reportedDrops) {
+                    OUT.println(LocalDateTime.now() + " WARN  [Logger] " + (dropped - reportedDrops)
+                            + " log messages dropped (queue full)");
+                    OUT.flush();
+                    reportedDrops = dropped;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void flush() {
+        WRITER.interrupt();
+        try {
+            WRITER.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+    }
+
+    private static void drain() {
+        List<Entry> remaining = new ArrayList<>();
+        QUEUE.drainTo(remaining);
+        write(remaining);
+    }
+
+    private static void write(List<Entry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder(batch.size() * 96);
+        synchronized (OUT) {
+            for (Entry entry : batch) {
+                entry.appendTo(text);
+                if (entry.error != null) {
+                    OUT.print(text);
+                    text.setLength(0);
+                    entry.error.printStackTrace(OUT);
+                }
+            }
+            OUT.print(text);
+            OUT.flush();
+        }
+    }
+
+    private static final class Entry {
+        final LocalDateTime timestamp;
+        final Level level;
+        final String logger;
+        final String message;
+        final Throwable error;
+
+        Entry(LocalDateTime timestamp, Level level, String logger, String message, Throwable error) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.logger = logger;
+            this.message = message;
+            this.error = error;
+        }
+
+        void appendTo(StringBuilder text) {
+            text.append(timestamp).append(' ').append(level);
+            if (level.name().length() < 5) {
+                text.append(' ');
+            }
+            text.append(" [").append(logger).append("] ").append(message);
+            text.append(System.lineSeparator());
+        }
+    }
+}
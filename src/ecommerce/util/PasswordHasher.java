@@ -0,0 +1,173 @@
+package ecommerce.util;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+public class PasswordHasher implements Closeable {
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int DEFAULT_ITERATIONS = 310_000;
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+    private static final byte[] DUMMY_SALT = new byte[SALT_BYTES];
+
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random;
+    private final int iterations;
+
+    public PasswordHasher() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY,
+                Integer.getInteger("ecommerce.password.iterations", DEFAULT_ITERATIONS));
+    }
+
+    public PasswordHasher(int threads, int queueCapacity, int iterations) {
+        ValidationUtil.validatePositive(threads, "Hasher threads must be greater than zero");
+        ValidationUtil.validatePositive(queueCapacity, "Hasher queue capacity must be greater than zero");
+        ValidationUtil.validatePositive(iterations, "Hash iterations must be greater than zero");
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.random = new SecureRandom();
+        this.iterations = iterations;
+    }
+
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    public CompletableFuture<String> hash(String password) {
+        ValidationUtil.validateNotNull(password, "Password cannot be null");
+        return submit(() -> newHash(password), false);
+    }
+
+    public List<CompletableFuture<String>> hashAll(List<String> passwords) {
+        int window = executor.getMaximumPoolSize();
+        List<CompletableFuture<String>> hashes = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            ValidationUtil.validateNotNull(password, "Password cannot be null");
+            if (hashes.size() >= window) {
+                hashes.get(hashes.size() - window).exceptionally(error -> null).join();
+            }
+            hashes.add(submit(() -> newHash(password), true));
+        }
+        return hashes;
+    }
+
+    public CompletableFuture<Boolean> verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!isHashed(stored)) {
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8)));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return CompletableFuture.completedFuture(false);
+        }
+        int storedIterations;
+        byte[] salt;
+        byte[] expected;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (storedIterations <= 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return submit(() -> MessageDigest.isEqual(expected, derive(password, salt, storedIterations)), false);
+    }
+
+    public CompletableFuture<Boolean> verifyUnknown(String password) {
+        if (password == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return submit(() -> {
+            derive(password, DUMMY_SALT, iterations);
+            return false;
+        }, false);
+    }
+
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private String newHash(String password) throws GeneralSecurityException {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] key = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+    }
+
+    private <T> CompletableFuture<T> submit(HashTask<T> task, boolean runWhenBusy) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> complete(result, task));
+        } catch (RejectedExecutionException e) {
+            if (runWhenBusy && !executor.isShutdown()) {
+                complete(result, task);
+            } else {
+                result.completeExceptionally(new RejectedExecutionException("Too many concurrent password checks", e));
+            }
+        }
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, HashTask<T> task) {
+        try {
+            result.complete(task.run());
+        } catch (GeneralSecurityException | RuntimeException e) {
+            result.completeExceptionally(new IllegalStateException("Password hashing failed", e));
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int rounds) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    @FunctionalInterface
+    private interface HashTask<T> {
+        T run() throws GeneralSecurityException;
+    }
+}
@@ -0,0 +1,54 @@
+package ecommerce.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class StripedLock {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLock(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock forKey(long key) {
+        return locks[stripeOf(key)];
+    }
+
+    public List<ReentrantLock> forKeys(Collection<Long> keys) {
+        BitSet stripes = new BitSet(locks.length);
+        for (Long key : keys) {
+            stripes.set(stripeOf(key));
+        }
+        List<ReentrantLock> result = new ArrayList<>(stripes.cardinality());
+        for (int i = stripes.nextSetBit(0); i >= 0; i = stripes.nextSetBit(i + 1)) {
+            result.add(locks[i]);
+        }
+        return result;
+    }
+
+    public static void lockAll(List<ReentrantLock> locks) {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    public static void unlockAll(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    private int stripeOf(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
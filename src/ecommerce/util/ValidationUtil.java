@@ -2,7 +2,6 @@ package ecommerce.util;
 
 import ecommerce.model.Product;
 import ecommerce.model.User;
-import java.math.BigDecimal;
 
 public class ValidationUtil {
 
@@ -48,7 +47,7 @@ public class ValidationUtil {
         validateNotEmpty(product.getCategory(), "Product category cannot be empty");
         validateNotNull(product.getPrice(), "Product price cannot be null");
         
-        if (product.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+        if (!product.getPrice().isPositive()) {
             throw new IllegalArgumentException("Product price must be greater than zero");
         }
     }